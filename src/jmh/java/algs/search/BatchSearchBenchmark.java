@@ -0,0 +1,91 @@
+package algs.search;
+
+import algs.sort.ElementCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of lookups answered one key at a time against searchAll, for
+ * random and for ascending queries. Sorted sizes fit in L3 (4 MB) or
+ * only in DRAM (400 MB); LinearSearch uses a smaller unsorted array.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchSearchBenchmark {
+
+    private static final int QUERIES = 1 << 16;
+    private static final int LINEAR_SIZE = 1 << 14;
+    private static final int LINEAR_QUERIES = 1 << 8;
+
+    @Param({"1048576", "100000000"})
+    private int size;
+
+    private final BinarySearch binarySearch = new BinarySearch();
+
+    private SortedIntSet set;
+    private int[] keys;
+    private int[] queries;
+    private int[] sortedQueries;
+    private int[] out;
+
+    private int[] unsorted;
+    private int[] linearQueries;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        // Even keys, so about half of the queries miss
+        keys = new int[size];
+        for (int i = 0; i < size; i++) keys[i] = 2 * i;
+        set = new SortedIntSet(keys, size);
+        queries = ThreadLocalRandom.current().ints(QUERIES, 0, 2 * size).toArray();
+        sortedQueries = queries.clone();
+        Arrays.sort(sortedQueries);
+        out = new int[QUERIES];
+
+        unsorted = ThreadLocalRandom.current().ints(LINEAR_SIZE, 0, 2 * LINEAR_SIZE).toArray();
+        linearQueries = ThreadLocalRandom.current().ints(LINEAR_QUERIES, 0, 2 * LINEAR_SIZE).toArray();
+    }
+
+    @Benchmark
+    public int[] perKey(ElementCounter counter) {
+        for (int i = 0; i < QUERIES; i++) out[i] = binarySearch.search(set, queries[i]);
+        counter.elements += QUERIES;
+        return out;
+    }
+
+    @Benchmark
+    public int[] searchAll(ElementCounter counter) {
+        BinarySearch.searchAll(keys, queries, out);
+        counter.elements += QUERIES;
+        return out;
+    }
+
+    @Benchmark
+    public int[] searchAllSorted(ElementCounter counter) {
+        BinarySearch.searchAll(keys, sortedQueries, out);
+        counter.elements += QUERIES;
+        return out;
+    }
+
+    @Benchmark
+    public int[] linearPerKey(ElementCounter counter) {
+        int[] result = new int[LINEAR_QUERIES];
+        for (int i = 0; i < LINEAR_QUERIES; i++) result[i] = LinearSearch.search(unsorted, linearQueries[i]);
+        counter.elements += LINEAR_QUERIES;
+        return result;
+    }
+
+    @Benchmark
+    public int[] linearSearchAll(ElementCounter counter) {
+        counter.elements += LINEAR_QUERIES;
+        return LinearSearch.searchAll(unsorted, linearQueries);
+    }
+
+}
@@ -0,0 +1,69 @@
+package algs.search;
+
+import algs.sort.ElementCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random lookups in a sorted set of distinct keys with the recursive
+ * BinarySearch.search, the branch-free BinarySearch.lowerBound and the
+ * Eytzinger layout. Sizes are picked to fit in L1 (16 KB), in L3
+ * (4 MB) and only in DRAM (400 MB).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BinarySearchBenchmark {
+
+    private static final int QUERIES = 1 << 12;
+
+    @Param({"4096", "1048576", "100000000"})
+    private int size;
+
+    private final BinarySearch binarySearch = new BinarySearch();
+
+    private SortedIntSet set;
+    private int[] keys;
+    private EytzingerSearch eytzinger;
+    private int[] queries;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        // Even keys, so about half of the queries miss
+        keys = new int[size];
+        for (int i = 0; i < size; i++) keys[i] = 2 * i;
+        set = new SortedIntSet(keys, size);
+        eytzinger = new EytzingerSearch(set);
+        queries = ThreadLocalRandom.current().ints(QUERIES, 0, 2 * size).toArray();
+    }
+
+    @Benchmark
+    public int recursive(ElementCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += binarySearch.search(set, x);
+        counter.elements += QUERIES;
+        return sum;
+    }
+
+    @Benchmark
+    public int branchFree(ElementCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += BinarySearch.lowerBound(keys, x);
+        counter.elements += QUERIES;
+        return sum;
+    }
+
+    @Benchmark
+    public int eytzinger(ElementCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += eytzinger.rank(x);
+        counter.elements += QUERIES;
+        return sum;
+    }
+
+}
@@ -0,0 +1,16 @@
+package algs.search;
+
+/**
+ * InterpolationSearch that counts its probes, for reporting probe counts
+ * without putting a counter on the search itself
+ */
+class CountingInterpolationSearch extends InterpolationSearch {
+
+    long probes;
+
+    @Override
+    protected void probed() {
+        probes++;
+    }
+
+}
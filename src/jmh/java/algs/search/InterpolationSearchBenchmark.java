@@ -0,0 +1,95 @@
+package algs.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random lookups of present keys with BinarySearch.lowerBound,
+ * InterpolationSearch and ExponentialSearch, on dense uniform keys (IDs
+ * with small random gaps) and on skewed keys (heavy-tailed gaps).
+ * Binary search always takes ceil(log2 n) probes, so only
+ * InterpolationSearch reports a measured probe count. The timed search
+ * has no counter; the probes of the query batch are counted once at
+ * setup with CountingInterpolationSearch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InterpolationSearchBenchmark {
+
+    public enum Keys {
+        UNIFORM,
+        SKEWED
+    }
+
+    private static final int QUERIES = 1 << 12;
+    // Largest gap between skewed keys, so 16M keys stay within an int
+    private static final int MAX_GAP = 100;
+
+    @Param({"1048576", "16777216"})
+    private int size;
+
+    @Param
+    private Keys keys;
+
+    private final InterpolationSearch interpolationSearch = new InterpolationSearch();
+    private final ExponentialSearch exponentialSearch = new ExponentialSearch();
+
+    private int[] sorted;
+    private int[] queries;
+    private long batchProbes;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sorted = new int[size];
+        int key = 0;
+        for (int i = 0; i < size; i++) {
+            key += keys == Keys.UNIFORM
+                    ? 1 + random.nextInt(3)
+                    : 1 + (int) Math.min(MAX_GAP, 1 / Math.pow(random.nextDouble(), 2));
+            sorted[i] = key;
+        }
+        queries = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++)
+            queries[i] = sorted[random.nextInt(size)];
+
+        CountingInterpolationSearch counting = new CountingInterpolationSearch();
+        for (int x : queries) counting.search(sorted, x);
+        batchProbes = counting.probes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int binary(ProbeCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += BinarySearch.lowerBound(sorted, x);
+        counter.lookups += QUERIES;
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int interpolation(ProbeCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += interpolationSearch.search(sorted, x);
+        counter.lookups += QUERIES;
+        counter.probes += batchProbes;
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int exponential(ProbeCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += exponentialSearch.search(sorted, x);
+        counter.lookups += QUERIES;
+        return sum;
+    }
+
+}
@@ -0,0 +1,74 @@
+package algs.search;
+
+import algs.sort.ElementCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LearnedIndex build time, and random lookups of present keys through it
+ * against BinarySearch.lowerBound on the same sorted long[]. Keys have
+ * random gaps of 1 to 1000. A 1B key array (8 GB) needs a larger heap
+ * than build.gradle gives the benchmarks, so it is not a default size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LearnedIndexBenchmark {
+
+    private static final int QUERIES = 1 << 12;
+
+    @Param({"1000000", "100000000"})
+    private int size;
+
+    @Param({"16", "64", "256"})
+    private int epsilon;
+
+    private long[] keys;
+    private LearnedIndex index;
+    private long[] queries;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        keys = new long[size];
+        long key = 0;
+        for (int i = 0; i < size; i++) {
+            key += 1 + random.nextInt(1000);
+            keys[i] = key;
+        }
+        index = new LearnedIndex(keys, epsilon);
+        queries = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++)
+            queries[i] = keys[random.nextInt(size)];
+        System.out.println(index.segments() + " segments, height " + index.height()
+                + ", " + index.sizeInBytes() + " bytes");
+    }
+
+    @Benchmark
+    public LearnedIndex build(ElementCounter counter) {
+        counter.elements += size;
+        return new LearnedIndex(keys, epsilon);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int learned() {
+        int sum = 0;
+        for (long x : queries) sum += index.rank(x);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int binary() {
+        int sum = 0;
+        for (long x : queries) sum += BinarySearch.lowerBound(keys, x);
+        return sum;
+    }
+
+}
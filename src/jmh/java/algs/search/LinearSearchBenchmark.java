@@ -0,0 +1,71 @@
+package algs.search;
+
+import algs.sort.ElementCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans of short unsorted arrays: the plain LinearSearch.search loop
+ * against indexOf, anyMatch and count, which use the vector scanner when
+ * the benchmark JVM runs with --add-modules jdk.incubator.vector, which
+ * build.gradle passes on JDK 16+. About a fifth of the queries miss.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LinearSearchBenchmark {
+
+    private static final int QUERIES = 1 << 10;
+
+    @Param({"16", "64", "256", "4096"})
+    private int size;
+
+    private int[] arr;
+    private int[] queries;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        arr = random.ints(size, 0, size).toArray();
+        queries = random.ints(QUERIES, 0, size + size / 4).toArray();
+        System.out.println(LinearSearch.SCANNER.getClass().getSimpleName());
+    }
+
+    @Benchmark
+    public int search(ElementCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += LinearSearch.search(arr, x);
+        counter.elements += QUERIES;
+        return sum;
+    }
+
+    @Benchmark
+    public int indexOf(ElementCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += LinearSearch.indexOf(arr, x);
+        counter.elements += QUERIES;
+        return sum;
+    }
+
+    @Benchmark
+    public int anyMatch(ElementCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += LinearSearch.anyMatch(arr, x) ? 1 : 0;
+        counter.elements += QUERIES;
+        return sum;
+    }
+
+    @Benchmark
+    public int count(ElementCounter counter) {
+        int sum = 0;
+        for (int x : queries) sum += LinearSearch.count(arr, x);
+        counter.elements += QUERIES;
+        return sum;
+    }
+
+}
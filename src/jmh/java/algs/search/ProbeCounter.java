@@ -0,0 +1,26 @@
+package algs.search;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts lookups and the keys they probed, so JMH reports probes per
+ * lookup next to the latency as probes / lookups.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class ProbeCounter {
+
+    public long lookups;
+    public long probes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        lookups = 0;
+        probes = 0;
+    }
+
+}
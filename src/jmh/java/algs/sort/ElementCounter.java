@@ -0,0 +1,25 @@
+package algs.sort;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the elements sorted by a benchmark so JMH reports a secondary
+ * per-element result next to the per-sort one: elements/ns in throughput
+ * mode and ns/element in average time mode.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ElementCounter {
+
+    public long elements;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        elements = 0;
+    }
+
+}
@@ -0,0 +1,64 @@
+package algs.sort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeping a growing collection sorted as batches arrive: append each batch
+ * and re-sort everything with MergeSort, against IncrementalSorter which
+ * sorts only the new batch and merges runs in the background. Both end
+ * with the full sorted array, so the final iteration is included.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IncrementalSortBenchmark {
+
+    @Param({"100"})
+    private int batches;
+
+    @Param({"1000", "10000"})
+    private int batchSize;
+
+    private final MergeSort mergeSort = new MergeSort();
+
+    private int[][] source;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = new int[batches][];
+        for (int b = 0; b < batches; b++)
+            source[b] = ThreadLocalRandom.current().ints(batchSize).toArray();
+    }
+
+    @Benchmark
+    public int[] resortEachBatch(ElementCounter counter) {
+        int[] all = new int[0];
+        int[] scratch = new int[batches * batchSize];
+        for (int[] batch : source) {
+            int n = all.length;
+            all = Arrays.copyOf(all, n + batch.length);
+            System.arraycopy(batch, 0, all, n, batch.length);
+            mergeSort.sort(all, scratch);
+        }
+        counter.elements += all.length;
+        return all;
+    }
+
+    @Benchmark
+    public int[] incremental(ElementCounter counter) throws InterruptedException {
+        try (IncrementalSorter sorter = new IncrementalSorter()) {
+            for (int[] batch : source) sorter.add(batch);
+            sorter.awaitMerges();
+            counter.elements += batches * batchSize;
+            return sorter.toSortedArray();
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of ParallelMergeSort, ParallelSampleSort and ParallelLsdRadixSort
+ * against the sequential MergeSort and LsdRadixSort and Arrays.parallelSort
+ * on random input.
+ *
+ * Arrays.parallelSort always runs on the common pool; to compare it at the
+ * same parallelism pass -Djava.util.concurrent.ForkJoinPool.common.parallelism=N.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    private int parallelism;
+
+    @Param({"8192"})
+    private int threshold;
+
+    private final MergeSort mergeSort = new MergeSort();
+    private ForkJoinPool pool;
+    private final LsdRadixSort radixSort = new LsdRadixSort();
+    private ParallelMergeSort parallelMergeSort;
+    private ParallelSampleSort sampleSort;
+    private ParallelLsdRadixSort parallelRadixSort;
+
+    private int[] source;
+    private int[] arr;
+    private int[] scratch;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = Distribution.RANDOM.generate(size);
+        arr = new int[size];
+        scratch = new int[size];
+        pool = new ForkJoinPool(parallelism);
+        parallelMergeSort = new ParallelMergeSort(threshold, pool);
+        sampleSort = new ParallelSampleSort(ParallelSampleSort.DEFAULT_THRESHOLD, pool);
+        parallelRadixSort = new ParallelLsdRadixSort(ParallelLsdRadixSort.DEFAULT_THRESHOLD, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @Benchmark
+    public int[] mergeSort(ElementCounter counter) {
+        mergeSort.sort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort(ElementCounter counter) {
+        parallelMergeSort.sort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] sampleSort(ElementCounter counter) {
+        sampleSort.sort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSort(ElementCounter counter) {
+        radixSort.sort(arr, scratch);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] parallelRadixSort(ElementCounter counter) {
+        parallelRadixSort.sort(arr, scratch);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort(ElementCounter counter) {
+        Arrays.parallelSort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+}
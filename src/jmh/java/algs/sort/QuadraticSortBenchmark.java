@@ -0,0 +1,59 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the O(n2) sorts. Sizes stop at 100K: past that a single
+ * sort of random input takes minutes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QuadraticSortBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param
+    private Distribution distribution;
+
+    private final InsertionSort insertionSort = new InsertionSort();
+    private final SelectionSort selectionSort = new SelectionSort();
+
+    private int[] source;
+    private int[] arr;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = distribution.generate(size);
+        arr = new int[size];
+    }
+
+    // A fresh copy of the same input, in the trial's buffer. Copying in a
+    // Level.Invocation setup instead would distort the 1K-element sorts.
+    private int[] input() {
+        System.arraycopy(source, 0, arr, 0, size);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] insertionSort(ElementCounter counter) {
+        insertionSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] selectionSort(ElementCounter counter) {
+        selectionSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+}
@@ -0,0 +1,53 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the QuickSort partitioning modes on duplicate-heavy input.
+ * FEW_UNIQUE draws from 10 distinct keys; LOMUTO only avoids going
+ * quadratic there by gathering the keys equal to a minimum pivot, while
+ * THREE_WAY and DUAL_PIVOT set duplicates aside during partitioning.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QuickSortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"FEW_UNIQUE", "RANDOM"})
+    private Distribution distribution;
+
+    @Param
+    private QuickSort.Mode mode;
+
+    private QuickSort quickSort;
+
+    private int[] source;
+    private int[] arr;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = distribution.generate(size);
+        arr = new int[size];
+        quickSort = new QuickSort(mode);
+    }
+
+    @Benchmark
+    public int[] quickSort(ElementCounter counter) {
+        // Copied here rather than in a Level.Invocation setup, which
+        // distorts the 1K-element sorts
+        System.arraycopy(source, 0, arr, 0, size);
+        quickSort.sort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+}
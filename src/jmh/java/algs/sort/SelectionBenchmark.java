@@ -0,0 +1,75 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-k of a large array: a full IntroSort against QuickSelect.partialSort
+ * (O(n + k log k)) and a streaming TopK heap (O(n log k)). The streaming
+ * version reads the source without copying or modifying it.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectionBenchmark {
+
+    @Param({"1000000", "10000000", "50000000"})
+    private int size;
+
+    @Param({"100", "10000"})
+    private int k;
+
+    @Param({"RANDOM", "SORTED"})
+    private Distribution distribution;
+
+    private final IntroSort introSort = new IntroSort();
+    private final QuickSelect quickSelect = new QuickSelect();
+
+    private int[] source;
+    private int[] arr;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = distribution.generate(size);
+        arr = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @Benchmark
+    public int[] fullSort(ElementCounter counter) {
+        introSort.sort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int select(ElementCounter counter) {
+        counter.elements += size;
+        return quickSelect.select(arr, size - k);
+    }
+
+    @Benchmark
+    public int[] partialSort(ElementCounter counter) {
+        quickSelect.partialSort(arr, k);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] topK(ElementCounter counter) {
+        TopK top = new TopK(k);
+        top.offerAll(source);
+        counter.elements += size;
+        return top.toSortedArray();
+    }
+
+}
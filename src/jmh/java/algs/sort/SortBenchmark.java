@@ -0,0 +1,159 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the O(n log n) sorts from 1K to 100M elements.
+ *
+ * Run with: ./gradlew jmh
+ * Narrow it down with e.g. -PjmhInclude=SortBenchmark.mergeSort
+ *
+ * Every benchmark copies the input into a buffer allocated once per
+ * trial and then sorts it, so its time includes one arraycopy of size
+ * elements; copyOnly measures that copy alone. Copying in a
+ * Level.Invocation setup instead would distort the microsecond sorts.
+ *
+ * Sorters are constructed with explicit modes so that a change of
+ * default does not silently change what is measured. quickSort uses
+ * DUAL_PIVOT; QuickSortBenchmark compares all the modes.
+ *
+ * Merge sort memory/time trade-off (see gc.alloc.rate.norm):
+ * - mergeSort is the textbook CLASSIC mode, allocating temp arrays on
+ *   every merge;
+ * - mergeSortBuffered allocates an n-element buffer per sort, so the peak is 2n;
+ * - mergeSortScratch reuses a caller buffer, nothing per sort, still 2n live;
+ * - mergeSortInPlace allocates sqrt(n) elements (about 40 KB at 100M ints)
+ *   and runs roughly 1.2x slower than mergeSortBuffered on random input;
+ * - mergeSortRotations allocates nothing and merges through rotations
+ *   only, roughly 4-5x slower. All four are stable.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    private int size;
+
+    @Param
+    private Distribution distribution;
+
+    private final HeapSort heapSort = new HeapSort();
+    private final HeapSort quaternaryHeapSort = new HeapSort(HeapSort.QUATERNARY);
+    private final QuickSort quickSort = new QuickSort(QuickSort.Mode.DUAL_PIVOT);
+    private final IntroSort introSort = new IntroSort();
+    private final MergeSort mergeSort = new MergeSort(MergeSort.Mode.CLASSIC);
+    private final MergeSort bufferedMergeSort = new MergeSort(MergeSort.Mode.BUFFERED);
+    private final TimSort timSort = new TimSort();
+    private final LsdRadixSort radixSort = new LsdRadixSort();
+    private final MergeSort inPlaceMergeSort = new MergeSort(MergeSort.Mode.IN_PLACE);
+    private final InPlaceMergeSort rotationMergeSort = new InPlaceMergeSort(0);
+
+    private int[] source;
+    private int[] arr;
+    private int[] scratch;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = distribution.generate(size);
+        arr = new int[size];
+        scratch = new int[size];
+    }
+
+    // A fresh copy of the same input, in the trial's buffer
+    private int[] input() {
+        System.arraycopy(source, 0, arr, 0, size);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] copyOnly(ElementCounter counter) {
+        counter.elements += size;
+        return input();
+    }
+
+    @Benchmark
+    public int[] heapSort(ElementCounter counter) {
+        heapSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quaternaryHeapSort(ElementCounter counter) {
+        quaternaryHeapSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSort(ElementCounter counter) {
+        quickSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] introSort(ElementCounter counter) {
+        introSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSort(ElementCounter counter) {
+        mergeSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSortBuffered(ElementCounter counter) {
+        bufferedMergeSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    // Caller-supplied buffer: gc.alloc.rate.norm should be ~0 B/op
+    @Benchmark
+    public int[] mergeSortScratch(ElementCounter counter) {
+        bufferedMergeSort.sort(input(), scratch);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSortInPlace(ElementCounter counter) {
+        inPlaceMergeSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSortRotations(ElementCounter counter) {
+        rotationMergeSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] timSort(ElementCounter counter) {
+        timSort.sort(input());
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSort(ElementCounter counter) {
+        radixSort.sort(input(), scratch);
+        counter.elements += size;
+        return arr;
+    }
+
+}
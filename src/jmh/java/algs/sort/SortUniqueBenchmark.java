@@ -0,0 +1,65 @@
+package algs.sort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sort then deduplicate in a separate pass, against MergeSort.sortUnique
+ * which drops duplicates during the final merge. Keys are drawn from
+ * size / duplication distinct values.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SortUniqueBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    private int size;
+
+    // Average copies of each key
+    @Param({"1", "2", "16"})
+    private int duplication;
+
+    private final MergeSort mergeSort = new MergeSort();
+
+    private int[] source;
+    private int[] arr;
+    private int[] scratch;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        int distinct = Math.max(1, size / duplication);
+        source = ThreadLocalRandom.current().ints(size, 0, distinct).toArray();
+        arr = new int[size];
+        scratch = new int[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, arr, 0, size);
+    }
+
+    @Benchmark
+    public int[] sortThenDedupe(ElementCounter counter) {
+        mergeSort.sort(arr, scratch);
+        int m = size == 0 ? 0 : 1;
+        for (int i = 1; i < size; i++)
+            if (arr[i] != arr[m - 1]) arr[m++] = arr[i];
+        counter.elements += size;
+        return Arrays.copyOf(arr, m);
+    }
+
+    @Benchmark
+    public int[] sortUnique(ElementCounter counter) {
+        int m = mergeSort.sortUnique(arr, scratch);
+        counter.elements += size;
+        return Arrays.copyOf(arr, m);
+    }
+
+}
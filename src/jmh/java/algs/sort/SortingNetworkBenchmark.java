@@ -0,0 +1,125 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaf sorters on random input: InsertionSort against SortingNetwork on
+ * many small arrays, and both as the leaf sorter of QuickSort and
+ * MergeSort on `size` elements.
+ *
+ * smallArrays sorts SMALL_ELEMENTS elements as arrays of `small`
+ * elements laid out back to back, and its score is ns per element
+ * through @OperationsPerInvocation. The other benchmarks report ns per
+ * sort, plus ns per element through ElementCounter.
+ *
+ * Every benchmark copies its input into a trial buffer first, and
+ * smallCopyOnly and copyOnly measure those copies alone. A
+ * Level.Invocation setup would copy both inputs, the 1M-element one
+ * included, before every invocation of a few tens of microseconds, and
+ * its overhead distorts results that short.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SortingNetworkBenchmark {
+
+    // Divisible by every `small`
+    private static final int SMALL_ELEMENTS = 48 * 1024;
+
+    @Param({"4", "8", "12", "16"})
+    private int small;
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param
+    private LeafSort leaf;
+
+    private final InsertionSort insertionSort = new InsertionSort();
+    private QuickSort threeWay;
+    private QuickSort dualPivot;
+    private MergeSort mergeSort;
+
+    private int[] smallSource;
+    private int[] smallArr;
+    private int[] source;
+    private int[] arr;
+    private int[] scratch;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        smallSource = Distribution.RANDOM.generate(SMALL_ELEMENTS);
+        smallArr = new int[smallSource.length];
+        source = Distribution.RANDOM.generate(size);
+        arr = new int[size];
+        scratch = new int[size];
+        threeWay = new QuickSort(QuickSort.Mode.THREE_WAY, leaf);
+        dualPivot = new QuickSort(QuickSort.Mode.DUAL_PIVOT, leaf);
+        mergeSort = new MergeSort(MergeSort.Mode.BUFFERED, leaf);
+    }
+
+    // Fresh copies of the same inputs, in the trial's buffers
+    private int[] smallInput() {
+        System.arraycopy(smallSource, 0, smallArr, 0, SMALL_ELEMENTS);
+        return smallArr;
+    }
+
+    private int[] input() {
+        System.arraycopy(source, 0, arr, 0, size);
+        return arr;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SMALL_ELEMENTS)
+    public int[] smallCopyOnly() {
+        return smallInput();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SMALL_ELEMENTS)
+    public int[] smallArrays() {
+        int[] arr = smallInput();
+        for (int lo = 0; lo < SMALL_ELEMENTS; lo += small) {
+            if (leaf == LeafSort.SORTING_NETWORK) SortingNetwork.sort(arr, lo, lo + small);
+            else insertionSort.sort(arr, lo, lo + small);
+        }
+        return arr;
+    }
+
+    @Benchmark
+    public int[] copyOnly(ElementCounter counter) {
+        counter.elements += size;
+        return input();
+    }
+
+    @Benchmark
+    public int[] threeWayQuickSort(ElementCounter counter) {
+        int[] arr = input();
+        threeWay.sort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] dualPivotQuickSort(ElementCounter counter) {
+        int[] arr = input();
+        dualPivot.sort(arr);
+        counter.elements += size;
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSort(ElementCounter counter) {
+        int[] arr = input();
+        mergeSort.sort(arr, scratch);
+        counter.elements += size;
+        return arr;
+    }
+
+}
@@ -0,0 +1,69 @@
+package algs.sort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * URL-like strings sharing a long common prefix, sorted by PrefixSort,
+ * MsdRadixSort and Arrays.sort (String.compareTo on every comparison).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StringSortBenchmark {
+
+    private static final String PREFIX = "https://www.example.com/path/to/resource/";
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private final PrefixSort prefixSort = new PrefixSort();
+    private final MsdRadixSort msdRadixSort = new MsdRadixSort();
+
+    private String[] source;
+    private String[] arr;
+    private long[] keys;
+    private String[] scratch;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = new String[size];
+        for (int i = 0; i < size; i++)
+            source[i] = PREFIX + ThreadLocalRandom.current().nextInt(size);
+        keys = new long[size];
+        scratch = new String[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        arr = source.clone();
+    }
+
+    @Benchmark
+    public String[] prefixSort(ElementCounter counter) {
+        prefixSort.sort(arr, keys);
+        counter.elements += arr.length;
+        return arr;
+    }
+
+    @Benchmark
+    public String[] msdRadixSort(ElementCounter counter) {
+        msdRadixSort.sort(arr, scratch);
+        counter.elements += arr.length;
+        return arr;
+    }
+
+    @Benchmark
+    public String[] arraysSort(ElementCounter counter) {
+        Arrays.sort(arr);
+        counter.elements += arr.length;
+        return arr;
+    }
+
+}
@@ -4,7 +4,12 @@ import algs.graph.BreadthFirstSearch;
 import algs.graph.DepthFirstSearch;
 import algs.graph.DijkstraSP;
 import algs.search.BinarySearch;
+import algs.search.ExponentialSearch;
+import algs.search.EytzingerSearch;
+import algs.search.InterpolationSearch;
+import algs.search.LearnedIndex;
 import algs.search.LinearSearch;
+import algs.search.SortedIntSet;
 import algs.search.bst.AvlTree;
 import algs.search.bst.BinarySearchTree;
 import algs.sort.*;
@@ -32,7 +37,24 @@ public class Main {
         list.add(new SelectionSort());
         list.add(new HeapSort());
         list.add(new QuickSort());
+        list.add(new IntroSort());
         list.add(new MergeSort());
+        list.add(new TimSort());
+        list.add(new ParallelMergeSort());
+        list.add(new LsdRadixSort());
+        list.add(new MsdRadixSort());
+        list.add(new ExternalSort());
+        list.add(new ParallelSampleSort());
+        list.add(new ParallelLsdRadixSort());
+        list.add(new QuickSelect());
+        list.add(new TopK(3));
+        list.add(new ArgSort());
+        list.add(new SortingNetwork());
+        list.add(new BufferSort());
+        list.add(new InPlaceMergeSort());
+        list.add(new IncrementalSorter());
+        list.add(new AntiQuickSort());
+        list.add(new PrefixSort());
         return list;
     }
 
@@ -40,6 +62,11 @@ public class Main {
         List<Testable> list = new ArrayList<>();
         list.add(new LinearSearch());
         list.add(new BinarySearch());
+        list.add(new InterpolationSearch());
+        list.add(new ExponentialSearch());
+        list.add(SortedIntSet.of(new int[] { 12, 6, 11, 6, 13, 5 }));
+        list.add(new EytzingerSearch(new int[] { 5, 6, 11, 12, 13 }));
+        list.add(new LearnedIndex(new long[0]));
         list.add(new BinarySearchTree());
         list.add(new AvlTree());
         return list;
@@ -1,12 +1,134 @@
 package algs.search;
 
+import algs.shared.util.ArrayHelper;
 import algs.shared.util.Testable;
 
+import java.util.Arrays;
+
 /**
  * Best: O(1) Average, Worst: O(log n)
  */
 public class BinarySearch implements Testable {
 
+    // Searches run in lockstep by searchAll; about as many cache misses
+    // as one core keeps in flight
+    static final int GROUP = 16;
+
+    /**
+     * Returns the index of x in the set, or -1 if it is not there
+     */
+    public int search(SortedIntSet set, int x) {
+        return search(set.keys(), 0, set.size() - 1, x);
+    }
+
+    /**
+     * Returns the index of the first element of arr[from..to) that is
+     * not smaller than x, or to if there is none. arr[from..to) must be
+     * sorted.
+     *
+     * Iterative and branch-free: each step halves the range by moving
+     * base with a conditional move rather than a jump, so the loop runs
+     * exactly ceil(log2 n) times with nothing for the CPU to mispredict.
+     */
+    public static int lowerBound(int[] arr, int from, int to, int x) {
+        if (from >= to) return from;
+        int base = from, n = to - from;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = arr[base + half] < x ? base + half : base;
+            n -= half;
+        }
+        return arr[base] < x ? base + 1 : base;
+    }
+
+    public static int lowerBound(int[] arr, int x) {
+        return lowerBound(arr, 0, arr.length, x);
+    }
+
+    public static int lowerBound(long[] arr, int from, int to, long x) {
+        if (from >= to) return from;
+        int base = from, n = to - from;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = arr[base + half] < x ? base + half : base;
+            n -= half;
+        }
+        return arr[base] < x ? base + 1 : base;
+    }
+
+    public static int lowerBound(long[] arr, long x) {
+        return lowerBound(arr, 0, arr.length, x);
+    }
+
+    /**
+     * For each query, the index of its first occurrence in sorted,
+     * or -1 if it is not there. sorted must be ascending.
+     */
+    public static int[] searchAll(int[] sorted, int[] queries) {
+        int[] out = new int[queries.length];
+        searchAll(sorted, queries, out);
+        return out;
+    }
+
+    /**
+     * searchAll into the caller's out array, which must be at least
+     * as long as queries.
+     *
+     * Ascending queries are answered in one galloping sweep, O(m log(n / m))
+     * in total. Other queries are searched GROUP at a time in lockstep:
+     * every step of lowerBound is taken for the whole group before the
+     * next, so the group's cache misses overlap instead of queueing.
+     */
+    public static void searchAll(int[] sorted, int[] queries, int[] out) {
+        if (out.length < queries.length)
+            throw new IllegalArgumentException("out buffer too small: " + out.length + " < " + queries.length);
+        if (isSorted(queries)) gallop(sorted, queries, out);
+        else interleave(sorted, queries, out);
+    }
+
+    private static void interleave(int[] sorted, int[] queries, int[] out) {
+        int n = sorted.length, m = queries.length;
+        int[] base = new int[GROUP];
+        for (int g = 0; g < m; g += GROUP) {
+            int k = Math.min(GROUP, m - g);
+            if (n == 0) {
+                Arrays.fill(out, g, g + k, -1);
+                continue;
+            }
+
+            Arrays.fill(base, 0, k, 0);
+            for (int len = n; len > 1; len -= len >>> 1) {
+                int half = len >>> 1;
+                for (int j = 0; j < k; j++) {
+                    int b = base[j];
+                    base[j] = sorted[b + half] < queries[g + j] ? b + half : b;
+                }
+            }
+
+            for (int j = 0; j < k; j++) {
+                int x = queries[g + j], b = base[j];
+                if (sorted[b] < x) b++;
+                out[g + j] = b < n && sorted[b] == x ? b : -1;
+            }
+        }
+    }
+
+    // Each search gallops on from where the previous one ended
+    private static void gallop(int[] sorted, int[] queries, int[] out) {
+        int n = sorted.length, pos = 0;
+        for (int i = 0; i < queries.length; i++) {
+            int x = queries[i];
+            pos = ExponentialSearch.lowerBound(sorted, pos, x);
+            out[i] = pos < n && sorted[pos] == x ? pos : -1;
+        }
+    }
+
+    private static boolean isSorted(int[] arr) {
+        for (int i = 1; i < arr.length; i++)
+            if (arr[i - 1] > arr[i]) return false;
+        return true;
+    }
+
     /**
      *  Returns index of x if it is present in arr[l..r], else return -1
      */
@@ -46,6 +168,11 @@ public class BinarySearch implements Testable {
             System.out.println("Element not present");
         else
             System.out.println("Element found at index " + result);
+
+        SortedIntSet set = SortedIntSet.of(new int[] { 12, 6, 11, 6, 13, 5 });
+        System.out.println("Element found in set at index " + search(set, x));
+        System.out.println("Lower bound of 7 is index " + lowerBound(arr, 7));
+        ArrayHelper.print(searchAll(arr, new int[] { 13, 6, 7, 5 }));
     }
 
 }
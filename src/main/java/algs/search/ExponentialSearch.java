@@ -0,0 +1,79 @@
+package algs.search;
+
+import algs.shared.util.Testable;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Best: O(1) Average, Worst: O(log i) where i is the position of x
+ *
+ * Galloping search: probe 1, 2, 4, 8, ... positions ahead until a key
+ * not smaller than x turns up, then binary search the last step. The
+ * cost depends on how far x is from the start rather than on the size
+ * of the array, so it also works on sources of unknown length and on
+ * sweeps that resume from the previous answer.
+ */
+public class ExponentialSearch implements Testable {
+
+    // Largest power of two index
+    private static final int MAX_BOUND = 1 << 30;
+
+    /**
+     * Returns the index of x in sorted, or -1 if it is not there
+     */
+    public int search(int[] sorted, int x) {
+        int i = lowerBound(sorted, 0, x);
+        return i < sorted.length && sorted[i] == x ? i : -1;
+    }
+
+    /**
+     * Index of the first key of sorted[from..] not smaller than x, or
+     * sorted.length if there is none. sorted[from..] must be ascending.
+     */
+    public static int lowerBound(int[] sorted, int from, int x) {
+        int n = sorted.length;
+        if (from >= n || sorted[from] >= x) return from;
+
+        // sorted[from + bound / 2] < x, and x <= sorted[from + bound]
+        // unless bound was clamped to the end; doubling in a long keeps
+        // bound from wrapping past 2^30
+        int bound = 1, last = n - from;
+        while (bound < last && sorted[from + bound] < x)
+            bound = (int) Math.min(2L * bound, last);
+        return BinarySearch.lowerBound(sorted, from + (bound >> 1) + 1, Math.min(from + bound, n), x);
+    }
+
+    /**
+     * Index of the first key not smaller than x in an ascending source of
+     * unknown length, where keyAt.applyAsInt(i) is the key at i. A source
+     * that runs out must answer Integer.MAX_VALUE past its end.
+     */
+    public static int lowerBound(IntUnaryOperator keyAt, int x) {
+        if (keyAt.applyAsInt(0) >= x) return 0;
+
+        // keyAt(bound / 2) < x, and x <= keyAt(bound) unless the
+        // search ran into the last power of two
+        int bound = 1;
+        while (bound < MAX_BOUND && keyAt.applyAsInt(bound) < x)
+            bound = (int) Math.min(2L * bound, MAX_BOUND);
+
+        int lo = (bound >> 1) + 1, hi = bound < MAX_BOUND ? bound : Integer.MAX_VALUE;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keyAt.applyAsInt(mid) < x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 5, 6, 11, 12, 13 };
+        System.out.println("Element found at index " + search(arr, 12));
+        System.out.println("Resuming from 2, lower bound of 7 is index " + lowerBound(arr, 2, 7));
+
+        // The squares 0, 1, 4, 9, ... as an endless source
+        System.out.println("First square not smaller than 1000 is at " + lowerBound(i -> i * i, 1000));
+    }
+
+}
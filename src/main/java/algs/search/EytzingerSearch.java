@@ -0,0 +1,112 @@
+package algs.search;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+/**
+ * rank, contains - Best, Average, Worst: O(log n)
+ *
+ * Sorted keys re-laid out in Eytzinger (BFS) order: the root of the
+ * implicit search tree is tree[1] and the children of tree[k] are
+ * tree[2k] and tree[2k + 1]. A search walks down from the root, so the
+ * first levels share a few hot cache lines instead of being spread over
+ * the whole array, and the 16 nodes four levels below tree[k] sit next
+ * to each other at tree[16k..16k + 16).
+ *
+ * Java has no prefetch instruction, so each step loads tree[16k] as a
+ * lookahead: the load does not feed the comparison, so the CPU issues it
+ * early and the line is usually in cache when the search gets there.
+ * The loaded keys are folded into the returned node through a term that
+ * is always zero, so the JIT cannot drop the loads as dead.
+ *
+ * The layout costs a copy of the keys plus their sorted positions.
+ */
+public class EytzingerSearch implements Testable {
+
+    // Levels ahead of the current node that are touched early
+    private static final int LOOKAHEAD_SHIFT = 4;
+    // Largest size whose child indexes 2k + 1 fit in an int
+    static final int MAX_SIZE = (1 << 30) - 1;
+
+    private final int[] tree;
+    // rank[k] is the position of tree[k] in the sorted input
+    private final int[] rank;
+    private final int n;
+
+    /**
+     * Lays out sorted[0..size), which must be ascending
+     */
+    public EytzingerSearch(int[] sorted, int size) {
+        if (size < 0 || size > sorted.length)
+            throw new IllegalArgumentException("size must be in [0, " + sorted.length + "]: " + size);
+        if (size > MAX_SIZE)
+            throw new IllegalArgumentException("size must be at most " + MAX_SIZE + ": " + size);
+        this.n = size;
+        this.tree = new int[size + 1];
+        this.rank = new int[size + 1];
+        build(sorted, 0, 1);
+    }
+
+    public EytzingerSearch(int[] sorted) {
+        this(sorted, sorted.length);
+    }
+
+    public EytzingerSearch(SortedIntSet set) {
+        this(set.keys(), set.size());
+    }
+
+    // In-order walk of the implicit tree from node k, taking keys from
+    // sorted[i..]; returns the next unused index
+    private int build(int[] sorted, int i, int k) {
+        if (k > n) return i;
+        i = build(sorted, i, 2 * k);
+        tree[k] = sorted[i];
+        rank[k] = i;
+        return build(sorted, i + 1, 2 * k + 1);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Number of keys smaller than x, as BinarySearch.lowerBound
+     * on the sorted input would return
+     */
+    public int rank(int x) {
+        int k = slot(x);
+        return k == 0 ? n : rank[k];
+    }
+
+    public boolean contains(int x) {
+        int k = slot(x);
+        return k != 0 && tree[k] == x;
+    }
+
+    /**
+     * Node holding the first key not smaller than x, or 0 if none
+     */
+    private int slot(int x) {
+        int[] tree = this.tree;
+        int k = 1, ahead = 0;
+        while (k <= n) {
+            ahead ^= tree[Math.min(k, n >>> LOOKAHEAD_SHIFT) << LOOKAHEAD_SHIFT];
+            k = 2 * k + (tree[k] < x ? 1 : 0);
+        }
+        // The answer is the last node where the search went left: strip
+        // the trailing right turns (ones) and that left turn (a zero).
+        // k <= 2 * MAX_SIZE + 1 never has its sign bit set, so the
+        // lookahead term is zero.
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1) | (ahead & k & Integer.MIN_VALUE);
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 5, 6, 11, 12, 13 };
+        EytzingerSearch search = new EytzingerSearch(arr);
+        ArrayHelper.print(search.tree);
+        System.out.println(search.contains(11) + " " + search.contains(7)
+                + " " + search.rank(12) + " " + search.rank(14));
+    }
+
+}
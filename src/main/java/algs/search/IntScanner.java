@@ -0,0 +1,19 @@
+package algs.search;
+
+/**
+ * Linear scans of an unsorted int[] for one key, behind LinearSearch's
+ * indexOf, count and anyMatch
+ */
+interface IntScanner {
+
+    /**
+     * Index of the first x in arr, or -1
+     */
+    int indexOf(int[] arr, int x);
+
+    /**
+     * Number of times x occurs in arr
+     */
+    int count(int[] arr, int x);
+
+}
@@ -0,0 +1,64 @@
+package algs.search;
+
+import algs.shared.util.Testable;
+
+/**
+ * Average: O(log log n) on uniform keys, Worst: O(log n)
+ *
+ * Instead of halving the range, probe where x would sit if the keys
+ * between sorted[lo] and sorted[hi] were evenly spaced. On dense,
+ * near-uniform keys such as IDs the first probe usually lands within a
+ * few slots of x.
+ *
+ * On skewed keys the guess can be far off and plain interpolation
+ * degrades to O(n). Whenever a probe fails to halve the range, the next
+ * probe is a binary search midpoint instead, so at worst every other
+ * probe halves the range: at most about 2 log2 n probes.
+ *
+ * probed() is called for each key read at a guessed or middle position;
+ * the range ends read alongside them sit next to the previous probe.
+ * It does nothing here, and subclasses can override it to count probes.
+ */
+public class InterpolationSearch implements Testable {
+
+    /**
+     * Returns the index of x in sorted, or -1 if it is not there
+     */
+    public int search(int[] sorted, int x) {
+        int lo = 0, hi = sorted.length - 1;
+        boolean bisect = false;
+        while (lo <= hi) {
+            int a = sorted[lo], b = sorted[hi];
+            if (x < a || x > b) return -1;
+            if (a == b) return lo;
+
+            int mid = bisect
+                    ? (lo + hi) >>> 1
+                    : lo + (int) ((double) ((long) x - a) / ((long) b - a) * (hi - lo));
+            probed();
+
+            int width = hi - lo;
+            int key = sorted[mid];
+            if (key == x) return mid;
+            if (key < x) lo = mid + 1;
+            else hi = mid - 1;
+            bisect = hi - lo > width / 2;
+        }
+        return -1;
+    }
+
+    protected void probed() {
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 5, 6, 11, 12, 13 };
+        int result = search(arr, 12);
+        if (result == -1)
+            System.out.println("Element not present");
+        else
+            System.out.println("Element found at index " + result);
+        System.out.println("Index of 7: " + search(arr, 7));
+    }
+
+}
@@ -0,0 +1,241 @@
+package algs.search;
+
+import algs.shared.util.Testable;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Build: O(n), rank, contains - O(levels * log epsilon), about O(log log n)
+ *
+ * PGM-style learned index over a sorted int[] or long[]. The keys are
+ * covered by piecewise-linear segments, each predicting the position of
+ * any of its keys to within epsilon; a lookup evaluates one segment and
+ * finishes with BinarySearch.lowerBound inside the 2 * epsilon + 1 window
+ * around the prediction.
+ *
+ * The segments' first keys are indexed the same way, with windows of
+ * EPSILON_RECURSIVE, until a level has a single segment. A lookup walks
+ * down from that root, so it costs one small window per level instead
+ * of log2 n probes spread over the whole array.
+ *
+ * Segments are fitted greedily with a shrinking cone: a segment starts
+ * at its first key and keeps the range of slopes that keep every key
+ * seen so far within epsilon, and ends when the range becomes empty.
+ * That may use a few more segments than the optimal PGM fit.
+ *
+ * The data is not copied. Each segment costs 20 bytes, so with the
+ * default epsilon the index is typically a small fraction of the keys.
+ * Only the first of equal keys is fitted; a lookup whose answer falls
+ * outside its window (duplicates, keys between segments) widens the
+ * window to the rest of the array, so results are always exact.
+ */
+public class LearnedIndex implements Testable {
+
+    static final int DEFAULT_EPSILON = 64;
+    static final int EPSILON_RECURSIVE = 4;
+
+    /**
+     * Segments over the keys of the level below (the data for level 0):
+     * segment i starts at keys[i], the key at position starts[i] below,
+     * and predicts starts[i] + slopes[i] * (x - keys[i]).
+     */
+    private static final class Level {
+        final long[] keys;
+        final double[] slopes;
+        final int[] starts;
+        final int size;
+        // Number of keys in the level below
+        final int below;
+
+        Level(long[] keys, double[] slopes, int[] starts, int size, int below) {
+            this.keys = keys;
+            this.slopes = slopes;
+            this.starts = starts;
+            this.size = size;
+            this.below = below;
+        }
+
+        // Position of x below, as predicted by segment seg and clamped to
+        // the positions the segment covers
+        int predict(int seg, long x) {
+            double dx = Math.max(0, (double) x - keys[seg]);
+            double p = starts[seg] + slopes[seg] * dx;
+            int end = seg + 1 < size ? starts[seg + 1] : below;
+            return (int) Math.min(p, end);
+        }
+
+        // Last segment whose first key is not greater than x, or 0
+        int floor(long x, int predicted) {
+            int r = windowLowerBound(keys, size, predicted, EPSILON_RECURSIVE, x);
+            if (r < size && keys[r] == x) return r;
+            return Math.max(r - 1, 0);
+        }
+    }
+
+    private final int[] ints;
+    private final long[] longs;
+    private final int n;
+    private final int epsilon;
+    // levels[0] covers the data, the last level has one segment
+    private final Level[] levels;
+
+    public LearnedIndex(long[] sorted) {
+        this(sorted, DEFAULT_EPSILON);
+    }
+
+    /**
+     * Indexes sorted, which must be ascending and must not change
+     * while the index is in use
+     */
+    public LearnedIndex(long[] sorted, int epsilon) {
+        this(null, sorted, sorted.length, epsilon, i -> sorted[i]);
+    }
+
+    public LearnedIndex(int[] sorted) {
+        this(sorted, DEFAULT_EPSILON);
+    }
+
+    public LearnedIndex(int[] sorted, int epsilon) {
+        this(sorted, null, sorted.length, epsilon, i -> sorted[i]);
+    }
+
+    private LearnedIndex(int[] ints, long[] longs, int n, int epsilon, IntToLongFunction keyAt) {
+        if (epsilon < 1) throw new IllegalArgumentException("epsilon must be positive: " + epsilon);
+        this.ints = ints;
+        this.longs = longs;
+        this.n = n;
+        this.epsilon = epsilon;
+        this.levels = build(keyAt, n, epsilon);
+    }
+
+    private static Level[] build(IntToLongFunction keyAt, int n, int epsilon) {
+        Level level = fit(keyAt, n, epsilon);
+        Level[] levels = { level };
+        while (level.size > 1) {
+            long[] keys = level.keys;
+            level = fit(i -> keys[i], level.size, EPSILON_RECURSIVE);
+            levels = Arrays.copyOf(levels, levels.length + 1);
+            levels[levels.length - 1] = level;
+        }
+        return levels;
+    }
+
+    /**
+     * Segments within epsilon of the points (keyAt(i), i), taking only
+     * the first i of each key. An empty input gets one segment at
+     * position 0.
+     */
+    private static Level fit(IntToLongFunction keyAt, int n, int epsilon) {
+        long[] keys = new long[16];
+        double[] slopes = new double[16];
+        int[] starts = new int[16];
+        int size = 0;
+
+        int i = 0;
+        do {
+            long first = n == 0 ? 0 : keyAt.applyAsLong(i);
+            double lo = 0, hi = Double.POSITIVE_INFINITY;
+            long previous = first;
+            int j = i + 1;
+            for (; j < n; j++) {
+                long key = keyAt.applyAsLong(j);
+                if (key == previous) continue;
+                previous = key;
+
+                double dx = (double) key - first;
+                double newLo = Math.max(lo, (j - i - epsilon) / dx);
+                double newHi = Math.min(hi, (j - i + epsilon) / dx);
+                if (newLo > newHi) break;
+                lo = newLo;
+                hi = newHi;
+            }
+
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                slopes = Arrays.copyOf(slopes, 2 * size);
+                starts = Arrays.copyOf(starts, 2 * size);
+            }
+            keys[size] = first;
+            slopes[size] = hi == Double.POSITIVE_INFINITY ? 0 : (lo + hi) / 2;
+            starts[size] = i;
+            size++;
+            i = j;
+        } while (i < n);
+
+        return new Level(Arrays.copyOf(keys, size), Arrays.copyOf(slopes, size),
+                Arrays.copyOf(starts, size), size, n);
+    }
+
+    /**
+     * Number of keys smaller than x, as BinarySearch.lowerBound
+     * on the sorted array would return
+     */
+    public int rank(long x) {
+        int seg = 0;
+        for (int l = levels.length - 1; l > 0; l--)
+            seg = levels[l - 1].floor(x, levels[l].predict(seg, x));
+        int predicted = levels[0].predict(seg, x);
+
+        if (longs != null) return windowLowerBound(longs, n, predicted, epsilon, x);
+        if (x < Integer.MIN_VALUE) return 0;
+        if (x > Integer.MAX_VALUE) return n;
+        return windowLowerBound(ints, n, predicted, epsilon, (int) x);
+    }
+
+    public boolean contains(long x) {
+        int r = rank(x);
+        return r < n && (longs != null ? longs[r] : ints[r]) == x;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int segments() {
+        return levels[0].size;
+    }
+
+    public int height() {
+        return levels.length;
+    }
+
+    /**
+     * Approximate memory used by the segments, not counting the data
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Level level : levels)
+            bytes += (long) level.size * (Long.BYTES + Double.BYTES + Integer.BYTES);
+        return bytes;
+    }
+
+    // lowerBound of x in keys[0..n), searching the window of epsilon
+    // around predicted first and the rest of the array only when the
+    // window's edges show that the answer is outside it
+    private static int windowLowerBound(long[] keys, int n, int predicted, int epsilon, long x) {
+        int lo = Math.max(predicted - epsilon, 0), hi = Math.min(predicted + epsilon + 1, n);
+        if (lo > 0 && keys[lo - 1] >= x) lo = 0;
+        if (hi < n && keys[hi] < x) hi = n;
+        return BinarySearch.lowerBound(keys, lo, hi, x);
+    }
+
+    private static int windowLowerBound(int[] keys, int n, int predicted, int epsilon, int x) {
+        int lo = Math.max(predicted - epsilon, 0), hi = Math.min(predicted + epsilon + 1, n);
+        if (lo > 0 && keys[lo - 1] >= x) lo = 0;
+        if (hi < n && keys[hi] < x) hi = n;
+        return BinarySearch.lowerBound(keys, lo, hi, x);
+    }
+
+    @Override
+    public void test() {
+        long[] keys = new long[1000];
+        for (int i = 0; i < keys.length; i++) keys[i] = (long) i * i;
+        LearnedIndex index = new LearnedIndex(keys, 8);
+        System.out.println(index.segments() + " segments, height " + index.height()
+                + ", " + index.sizeInBytes() + " bytes");
+        System.out.println(index.contains(144) + " " + index.contains(145)
+                + " " + index.rank(145) + " " + index.rank(Long.MAX_VALUE));
+    }
+
+}
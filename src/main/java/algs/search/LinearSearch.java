@@ -1,12 +1,19 @@
 package algs.search;
 
+import algs.shared.util.ArrayHelper;
 import algs.shared.util.Testable;
+import algs.sort.ArgSort;
+
+import java.util.Arrays;
 
 /**
  * Best: O(1), Average, Worst: O(n)
  */
 public class LinearSearch implements Testable {
 
+    // VectorIntScanner when jdk.incubator.vector is available
+    static final IntScanner SCANNER = loadScanner();
+
     static int search(int[] arr, int x) {
         int n = arr.length;
         for(int i = 0; i < n; i++)
@@ -17,6 +24,73 @@ public class LinearSearch implements Testable {
         return -1;
     }
 
+    /**
+     * Index of the first x in arr, or -1 if it is not there. Compares a
+     * whole vector of keys per step when the Vector API is available.
+     */
+    public static int indexOf(int[] arr, int x) {
+        return SCANNER.indexOf(arr, x);
+    }
+
+    /**
+     * Number of times x occurs in arr
+     */
+    public static int count(int[] arr, int x) {
+        return SCANNER.count(arr, x);
+    }
+
+    public static boolean anyMatch(int[] arr, int x) {
+        return SCANNER.indexOf(arr, x) != -1;
+    }
+
+    /**
+     * The vector scanner needs the jdk.incubator.vector module, which is
+     * only resolved when the JVM runs with
+     * --add-modules jdk.incubator.vector. Without it, or on a JDK that
+     * predates the module, loading the class fails and the scalar
+     * scanner is used.
+     */
+    private static IntScanner loadScanner() {
+        try {
+            return (IntScanner) Class.forName("algs.search.VectorIntScanner")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarIntScanner();
+        }
+    }
+
+    /**
+     * For each query, the index of its first occurrence in arr, or -1 if
+     * it is not there. arr need not be sorted.
+     *
+     * O(n log m + m log m): the queries are sorted once and arr is read
+     * in a single pass, looking each element up among the queries,
+     * instead of once per query.
+     */
+    public static int[] searchAll(int[] arr, int[] queries) {
+        int m = queries.length;
+        int[] perm = new ArgSort().argsort(queries);
+        int[] keys = new int[m];
+        for (int r = 0; r < m; r++) keys[r] = queries[perm[r]];
+
+        // first[r] is the first index of keys[r] in arr; duplicate keys
+        // are only ever found at their first rank
+        int[] first = new int[m];
+        Arrays.fill(first, -1);
+        for (int i = 0; i < arr.length; i++) {
+            int r = BinarySearch.lowerBound(keys, arr[i]);
+            if (r < m && keys[r] == arr[i] && first[r] == -1) first[r] = i;
+        }
+
+        int[] out = new int[m];
+        for (int r = 0; r < m; r++) {
+            if (r > 0 && keys[r] == keys[r - 1]) first[r] = first[r - 1];
+            out[perm[r]] = first[r];
+        }
+        return out;
+    }
+
     @Override
     public void test() {
         int[] arr = { 12, 11, 13, 5, 6 };
@@ -28,5 +102,9 @@ public class LinearSearch implements Testable {
             System.out.println("Element is not present in array");
         else
             System.out.println("Element is present at index " + result);
+
+        ArrayHelper.print(searchAll(arr, new int[] { 6, 7, 12 }));
+        System.out.println(SCANNER.getClass().getSimpleName() + ": indexOf(5) = " + indexOf(arr, 5)
+                + ", count(13) = " + count(arr, 13) + ", anyMatch(7) = " + anyMatch(arr, 7));
     }
 }
@@ -0,0 +1,36 @@
+package algs.search;
+
+/**
+ * Scalar scans, used when the Vector API is not available.
+ *
+ * C2 does not vectorize a loop that can exit early, so indexOf stays a
+ * plain loop, which C2 unrolls; testing blocks of keys with
+ * non-short-circuit ors measured slower. count keeps four independent
+ * counters, which breaks the dependency between iterations so that C2
+ * can unroll and vectorize it.
+ */
+class ScalarIntScanner implements IntScanner {
+
+    @Override
+    public int indexOf(int[] arr, int x) {
+        for (int i = 0; i < arr.length; i++)
+            if (arr[i] == x) return i;
+        return -1;
+    }
+
+    @Override
+    public int count(int[] arr, int x) {
+        int n = arr.length, i = 0;
+        int c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+        for (; i <= n - 4; i += 4) {
+            c0 += arr[i] == x ? 1 : 0;
+            c1 += arr[i + 1] == x ? 1 : 0;
+            c2 += arr[i + 2] == x ? 1 : 0;
+            c3 += arr[i + 3] == x ? 1 : 0;
+        }
+        for (; i < n; i++)
+            c0 += arr[i] == x ? 1 : 0;
+        return c0 + c1 + c2 + c3;
+    }
+
+}
@@ -0,0 +1,77 @@
+package algs.search;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+import algs.sort.MergeSort;
+
+import java.util.Arrays;
+
+/**
+ * contains, rank - Best: O(1) Average, Worst: O(log n)
+ *
+ * Read-only set of ints backed by the sorted, duplicate-free prefix
+ * keys[0..size) of an array, typically the output of
+ * MergeSort.sortUnique. The array is not copied, so a set over 100M
+ * keys costs nothing beyond the array the keys were sorted in.
+ */
+public class SortedIntSet implements Testable {
+
+    private final int[] keys;
+    private final int size;
+
+    /**
+     * View over keys[0..size), which must be strictly ascending
+     */
+    public SortedIntSet(int[] keys, int size) {
+        if (size < 0 || size > keys.length)
+            throw new IllegalArgumentException("size must be in [0, " + keys.length + "]: " + size);
+        this.keys = keys;
+        this.size = size;
+    }
+
+    /**
+     * Sorts and deduplicates arr in place and returns the set of its keys
+     */
+    public static SortedIntSet of(int[] arr) {
+        int size = new MergeSort().sortUnique(arr, new int[arr.length]);
+        return new SortedIntSet(arr, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("index " + i + " out of [0, " + size + ")");
+        return keys[i];
+    }
+
+    public boolean contains(int x) {
+        int r = rank(x);
+        return r < size && keys[r] == x;
+    }
+
+    /**
+     * Number of keys smaller than x
+     */
+    public int rank(int x) {
+        return BinarySearch.lowerBound(keys, 0, size, x);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    // Backing array and its used length, for searches that work on ranges
+    int[] keys() {
+        return keys;
+    }
+
+    @Override
+    public void test() {
+        SortedIntSet set = SortedIntSet.of(new int[] { 12, 5, 11, 13, 5, 6, 12 });
+        ArrayHelper.print(set.toArray());
+        System.out.println(set.contains(11) + " " + set.contains(7) + " " + set.rank(12));
+    }
+
+}
@@ -10,4 +10,14 @@ public class ArrayHelper {
         System.out.println();
     }
 
+    public static void print(long[] arr) {
+        for (long value : arr) System.out.print(value + " ");
+        System.out.println();
+    }
+
+    public static void print(Object[] arr) {
+        for (Object value : arr) System.out.print(value + " ");
+        System.out.println();
+    }
+
 }
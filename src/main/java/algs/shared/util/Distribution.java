@@ -0,0 +1,105 @@
+package algs.shared.util;
+
+import java.util.Arrays;
+
+/**
+ * Input shapes used to exercise the sorting algorithms.
+ */
+public enum Distribution {
+
+    // Uniformly random values over the whole int range
+    RANDOM {
+        @Override
+        void fill(int[] arr) {
+            for (int i = 0; i < arr.length; i++)
+                arr[i] = (int) StdRandom.uniform(1L << 32);
+        }
+    },
+
+    // 0, 1, 2, ..., n-1
+    SORTED {
+        @Override
+        void fill(int[] arr) {
+            for (int i = 0; i < arr.length; i++)
+                arr[i] = i;
+        }
+    },
+
+    // Sorted, except that about 1% of the values arrive late:
+    // each of them is swapped with a random earlier position
+    NEARLY_SORTED {
+        @Override
+        void fill(int[] arr) {
+            SORTED.fill(arr);
+            int n = arr.length;
+            for (int k = 0; k < n / 100; k++) {
+                int i = StdRandom.uniform(n);
+                int j = StdRandom.uniform(i + 1);
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+        }
+    },
+
+    // n-1, n-2, ..., 0
+    REVERSED {
+        @Override
+        void fill(int[] arr) {
+            int n = arr.length;
+            for (int i = 0; i < n; i++)
+                arr[i] = n - 1 - i;
+        }
+    },
+
+    // The same value everywhere
+    ALL_EQUAL {
+        @Override
+        void fill(int[] arr) {
+            Arrays.fill(arr, 0);
+        }
+    },
+
+    // Random values drawn from a handful of distinct keys
+    FEW_UNIQUE {
+        @Override
+        void fill(int[] arr) {
+            for (int i = 0; i < arr.length; i++)
+                arr[i] = StdRandom.uniform(FEW_UNIQUE_KEYS);
+        }
+    },
+
+    // 0, 1, ..., n/2, ..., 1, 0
+    ORGAN_PIPE {
+        @Override
+        void fill(int[] arr) {
+            int n = arr.length;
+            for (int i = 0; i < n; i++)
+                arr[i] = Math.min(i, n - 1 - i);
+        }
+    },
+
+    // Ascending runs of fixed length: 0, 1, ..., k-1, 0, 1, ..., k-1, ...
+    SAWTOOTH {
+        @Override
+        void fill(int[] arr) {
+            for (int i = 0; i < arr.length; i++)
+                arr[i] = i % SAWTOOTH_RUN;
+        }
+    };
+
+    private static final int FEW_UNIQUE_KEYS = 10;
+    private static final int SAWTOOTH_RUN = 1000;
+
+    abstract void fill(int[] arr);
+
+    /**
+     * Returns a new array of size n following this distribution
+     */
+    public int[] generate(int n) {
+        int[] arr = new int[n];
+        fill(arr);
+        return arr;
+    }
+
+}
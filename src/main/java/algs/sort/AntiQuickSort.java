@@ -0,0 +1,90 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+import java.util.Arrays;
+
+/**
+ * McIlroy's adversary for quicksort ("A Killer Adversary for Quicksort",
+ * 1999). Builds an input on which a given sorter does as much work as its
+ * pivot rule allows, by sorting the positions 0..n-1 with a comparator
+ * that decides the values as it goes:
+ * - every value starts as "gas", larger than any value decided so far;
+ * - when two gas values are compared, one of them is frozen to the next
+ *   smallest value. The gas value most recently compared (the likely
+ *   pivot) is the one left unfrozen, so the pivot ends up larger than
+ *   everything frozen around it and the partition is as lopsided as it
+ *   can be.
+ * The answers stay consistent with the values frozen so far, so the
+ * sorter finishes normally; the values frozen by the end are the killer
+ * input. It works against any deterministic pivot rule, including
+ * median-of-three and the ninther.
+ *
+ * Only the Comparator entry point can be driven, so the killer targets
+ * the int[] path as long as it picks pivots the same way, which holds for
+ * every Sorter in this package.
+ */
+public class AntiQuickSort implements Testable {
+
+    private final int[] value;
+    private final int gas;
+    private int solid = 0;
+    private int candidate = -1;
+    private long comparisons = 0;
+
+    private AntiQuickSort(int n) {
+        this.value = new int[n];
+        this.gas = n;
+        Arrays.fill(value, gas);
+    }
+
+    public AntiQuickSort() {
+        this(0);
+    }
+
+    /**
+     * A permutation of 0..n-1 that drives sorter into its worst case
+     */
+    public static int[] killer(Sorter sorter, int n) {
+        AntiQuickSort adversary = new AntiQuickSort(n);
+        adversary.run(sorter);
+        return adversary.value;
+    }
+
+    private void run(Sorter sorter) {
+        int n = value.length;
+        Integer[] positions = new Integer[n];
+        for (int i = 0; i < n; i++) positions[i] = i;
+
+        sorter.sort(positions, this::compare);
+
+        // Positions never compared against another gas value are still
+        // undecided; any order among them will do
+        for (int i = 0; i < n; i++)
+            if (value[i] == gas) value[i] = solid++;
+    }
+
+    private int compare(int x, int y) {
+        comparisons++;
+        if (value[x] == gas && value[y] == gas) {
+            if (x == candidate) value[x] = solid++;
+            else value[y] = solid++;
+        }
+
+        if (value[x] == gas) candidate = x;
+        else if (value[y] == gas) candidate = y;
+
+        return Integer.compare(value[x], value[y]);
+    }
+
+    @Override
+    public void test() {
+        int n = 32;
+        AntiQuickSort adversary = new AntiQuickSort(n);
+        adversary.run(new QuickSort(QuickSort.Mode.THREE_WAY));
+        ArrayHelper.print(adversary.value);
+        System.out.println(adversary.comparisons + " comparisons");
+    }
+
+}
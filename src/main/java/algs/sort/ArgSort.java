@@ -0,0 +1,287 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+import java.util.Arrays;
+
+/**
+ * Best, Average, Worst: O(n log n)
+ *
+ * Sorts row indices instead of values. argsort returns the permutation
+ * perm such that column[perm[0]], column[perm[1]], ... is in order, which
+ * can then be applied to any number of parallel arrays with apply.
+ * The only allocations are the index array and, for MERGE, one
+ * auxiliary index array; rows are never materialized as objects.
+ */
+public class ArgSort implements Testable {
+
+    public enum Mode {
+        // MergeSort on the index array. Stable: rows with equal keys keep
+        // their original order, so sorting by a secondary key and then by a
+        // primary key works like a composite key.
+        MERGE,
+        // 3-way QuickSort on the index array. Not stable, but skips runs of
+        // equal keys and needs no auxiliary array unless a range recurses
+        // past IntroSort's depth limit and is finished by MERGE.
+        QUICK
+    }
+
+    private final Mode mode;
+
+    public ArgSort() {
+        this(Mode.MERGE);
+    }
+
+    public ArgSort(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int[] argsort(int[] column) {
+        return argsort(column.length, RowComparator.of(column));
+    }
+
+    public int[] argsort(long[] column) {
+        return argsort(column.length, RowComparator.of(column));
+    }
+
+    public int[] argsort(double[] column) {
+        return argsort(column.length, RowComparator.of(column));
+    }
+
+    /**
+     * Permutation of the rows 0..n-1 in the order of the comparator
+     */
+    public int[] argsort(int n, RowComparator comparator) {
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) perm[i] = i;
+
+        switch (mode) {
+            case MERGE:
+                int[] aux = perm.clone();
+                sortInto(aux, perm, 0, n, comparator);
+                break;
+            case QUICK:
+                threeWaySort(perm, 0, n - 1, IntroSort.depthLimit(n), comparator);
+                break;
+        }
+        return perm;
+    }
+
+    /**
+     * Sorts the indices of src[lo..hi) into dst[lo..hi), alternating
+     * between the two arrays as MergeSort does
+     */
+    private void sortInto(int[] src, int[] dst, int lo, int hi, RowComparator c) {
+        if (hi - lo <= IntroSort.INSERTION_SORT_CUTOFF) {
+            insertionSort(dst, lo, hi, c);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        sortInto(dst, src, lo, mid, c);
+        sortInto(dst, src, mid, hi, c);
+
+        // Halves already in order, no need to merge
+        if (c.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+
+        // Take from the left run on ties to stay stable
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (i == mid) dst[k] = src[j++];
+            else if (j == hi) dst[k] = src[i++];
+            else if (c.compare(src[j], src[i]) < 0) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    // Stable insertion sort of perm[lo..hi)
+    private static void insertionSort(int[] perm, int lo, int hi, RowComparator c) {
+        for (int i = lo + 1; i < hi; i++) {
+            int row = perm[i];
+            int j = i - 1;
+            while (j >= lo && c.compare(perm[j], row) > 0) {
+                perm[j + 1] = perm[j];
+                j--;
+            }
+            perm[j + 1] = row;
+        }
+    }
+
+    /**
+     * perm[low..high] with 3-way partitioning around a sampled row, as in
+     * QuickSort.threeWaySort. Once depth runs out the range is finished
+     * by merge sort, as IntroSort falls back to HeapSort.
+     */
+    private void threeWaySort(int[] perm, int low, int high, int depth, RowComparator c) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            // Too many bad pivots: give up on quicksort for this range
+            if (depth == 0) {
+                mergeSort(perm, low, high + 1, c);
+                return;
+            }
+            depth--;
+
+            swap(perm, low, choosePivot(perm, low, high, c));
+            int pivot = perm[low];
+
+            int lt = low, gt = high, i = low + 1;
+            while (i <= gt) {
+                int cmp = c.compare(perm[i], pivot);
+                if (cmp < 0) swap(perm, lt++, i++);
+                else if (cmp > 0) swap(perm, i, gt--);
+                else i++;
+            }
+
+            // Recurse into the smaller side, loop on the larger one
+            if (lt - low < high - gt) {
+                threeWaySort(perm, low, lt - 1, depth, c);
+                low = gt + 1;
+            } else {
+                threeWaySort(perm, gt + 1, high, depth, c);
+                high = lt - 1;
+            }
+        }
+        insertionSort(perm, low, high + 1, c);
+    }
+
+    // Stable merge sort of perm[lo..hi) through a copy of the range
+    private void mergeSort(int[] perm, int lo, int hi, RowComparator c) {
+        int[] src = Arrays.copyOfRange(perm, lo, hi);
+        int[] dst = src.clone();
+        sortInto(src, dst, 0, dst.length, c);
+        System.arraycopy(dst, 0, perm, lo, dst.length);
+    }
+
+    /**
+     * Position of the median of three rows, or on large ranges the
+     * ninther, as IntroSort.choosePivot picks it
+     */
+    private static int choosePivot(int[] perm, int lo, int hi, RowComparator c) {
+        int mid = (lo + hi) >>> 1;
+        if (hi - lo + 1 <= IntroSort.NINTHER_CUTOFF)
+            return median3(perm, lo, mid, hi, c);
+
+        int eps = (hi - lo + 1) / 8;
+        int m1 = median3(perm, lo, lo + eps, lo + eps + eps, c);
+        int m2 = median3(perm, mid - eps, mid, mid + eps, c);
+        int m3 = median3(perm, hi - eps - eps, hi - eps, hi, c);
+        return median3(perm, m1, m2, m3, c);
+    }
+
+    private static int median3(int[] perm, int i, int j, int k, RowComparator c) {
+        return c.compare(perm[i], perm[j]) < 0
+                ? (c.compare(perm[j], perm[k]) < 0 ? j : c.compare(perm[i], perm[k]) < 0 ? k : i)
+                : (c.compare(perm[k], perm[j]) < 0 ? j : c.compare(perm[k], perm[i]) < 0 ? k : i);
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * Reorders every column in place so that column[i] becomes the old
+     * column[perm[i]]. Each cycle of the permutation is followed once, and
+     * visited entries of perm are marked by flipping their bits, so nothing
+     * is allocated; perm is restored before returning.
+     */
+    public static void apply(int[] perm, int[]... columns) {
+        int n = perm.length;
+        for (int start = 0; start < n; start++) {
+            if (perm[start] < 0 || perm[start] == start) continue;
+            for (int[] column : columns) {
+                int first = column[start];
+                int j = start;
+                for (int k = perm[j]; k != start; j = k, k = perm[k]) column[j] = column[k];
+                column[j] = first;
+            }
+            markCycle(perm, start);
+        }
+        restore(perm);
+    }
+
+    public static void apply(int[] perm, long[]... columns) {
+        int n = perm.length;
+        for (int start = 0; start < n; start++) {
+            if (perm[start] < 0 || perm[start] == start) continue;
+            for (long[] column : columns) {
+                long first = column[start];
+                int j = start;
+                for (int k = perm[j]; k != start; j = k, k = perm[k]) column[j] = column[k];
+                column[j] = first;
+            }
+            markCycle(perm, start);
+        }
+        restore(perm);
+    }
+
+    public static void apply(int[] perm, double[]... columns) {
+        int n = perm.length;
+        for (int start = 0; start < n; start++) {
+            if (perm[start] < 0 || perm[start] == start) continue;
+            for (double[] column : columns) {
+                double first = column[start];
+                int j = start;
+                for (int k = perm[j]; k != start; j = k, k = perm[k]) column[j] = column[k];
+                column[j] = first;
+            }
+            markCycle(perm, start);
+        }
+        restore(perm);
+    }
+
+    @SafeVarargs
+    public static <T> void apply(int[] perm, T[]... columns) {
+        int n = perm.length;
+        for (int start = 0; start < n; start++) {
+            if (perm[start] < 0 || perm[start] == start) continue;
+            for (T[] column : columns) {
+                T first = column[start];
+                int j = start;
+                for (int k = perm[j]; k != start; j = k, k = perm[k]) column[j] = column[k];
+                column[j] = first;
+            }
+            markCycle(perm, start);
+        }
+        restore(perm);
+    }
+
+    // Flips every entry on the cycle through start, so it is skipped later
+    private static void markCycle(int[] perm, int start) {
+        int j = start;
+        do {
+            int next = perm[j];
+            perm[j] = ~next;
+            j = next;
+        } while (j != start);
+    }
+
+    private static void restore(int[] perm) {
+        for (int i = 0; i < perm.length; i++)
+            if (perm[i] < 0) perm[i] = ~perm[i];
+    }
+
+    @Override
+    public void test() {
+        int[] year = { 2021, 2019, 2021, 2020, 2019 };
+        double[] price = { 3.5, 9.0, 1.25, 4.0, 2.0 };
+        int[] id = { 0, 1, 2, 3, 4 };
+
+        // By year, then by price descending
+        RowComparator byYearThenPrice = RowComparator.of(year)
+                .thenComparing(RowComparator.of(price).reversed());
+        int[] perm = argsort(year.length, byYearThenPrice);
+        ArrayHelper.print(perm);
+
+        apply(perm, year, id);
+        apply(perm, price);
+        ArrayHelper.print(year);
+        ArrayHelper.print(id);
+    }
+
+}
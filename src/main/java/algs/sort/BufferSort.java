@@ -0,0 +1,342 @@
+package algs.sort;
+
+import algs.shared.util.Testable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * In-place sorting of IntBuffer and LongBuffer contents, between the
+ * buffer's position and limit. Meant for direct and memory-mapped buffers
+ * (e.g. MappedByteBuffer.asIntBuffer()): the keys are read and written
+ * through absolute get/put and never copied onto the heap.
+ *
+ * INTRO - Best, Average, Worst: O(n log n), IntroSort with a median-of-three
+ *         pivot.
+ * RADIX - Best, Average, Worst: O(w n), in-place MSD radix sort on 8-bit
+ *         digits (American flag sort): each level counts the digits, then
+ *         moves every key straight to its bucket by following swap cycles,
+ *         so no scratch buffer is needed. Buckets of RADIX_CUTOFF keys or
+ *         fewer are finished with INTRO.
+ *
+ * Views of a ByteBuffer use the byte order of that buffer;
+ * mapping with ByteOrder.nativeOrder() avoids a byte swap on every access.
+ */
+public class BufferSort implements Testable {
+
+    public enum Mode {
+        INTRO,
+        RADIX
+    }
+
+    private static final int BITS = 8;
+    private static final int R = 1 << BITS;
+    private static final int MASK = R - 1;
+
+    // Buckets this small are not worth another counting pass
+    private static final int RADIX_CUTOFF = 64;
+
+    private final Mode mode;
+
+    public BufferSort() {
+        this(Mode.RADIX);
+    }
+
+    public BufferSort(Mode mode) {
+        this.mode = mode;
+    }
+
+    public void sort(IntBuffer buf) {
+        int lo = buf.position(), hi = buf.limit();
+        switch (mode) {
+            case INTRO:
+                introSort(buf, lo, hi, IntroSort.depthLimit(hi - lo));
+                break;
+            case RADIX:
+                radixSort(buf, lo, hi, Integer.SIZE - BITS);
+                break;
+        }
+    }
+
+    public void sort(LongBuffer buf) {
+        int lo = buf.position(), hi = buf.limit();
+        switch (mode) {
+            case INTRO:
+                introSort(buf, lo, hi, IntroSort.depthLimit(hi - lo));
+                break;
+            case RADIX:
+                radixSort(buf, lo, hi, Long.SIZE - BITS);
+                break;
+        }
+    }
+
+    /**
+     * Sorts buf[lo..hi) on the digit at shift and recurses into every
+     * bucket on the next digit down
+     */
+    private void radixSort(IntBuffer buf, int lo, int hi, int shift) {
+        // Flip the sign bit of the top digit so negative keys come first
+        int flip = shift == Integer.SIZE - BITS ? 0x80 : 0;
+
+        int[] next = new int[R + 1];
+        for (int i = lo; i < hi; i++)
+            next[(((buf.get(i) >>> shift) & MASK) ^ flip) + 1]++;
+
+        // next[r] is where the next key of bucket r goes, end[r] = next[r + 1] at the start
+        next[0] = lo;
+        for (int r = 0; r < R; r++)
+            next[r + 1] += next[r];
+        int[] end = new int[R];
+        System.arraycopy(next, 1, end, 0, R);
+
+        // Every key is moved once: pick up the key sitting in the next free
+        // slot of bucket r and carry it to its own bucket, until one belongs in r
+        for (int r = 0; r < R; r++) {
+            while (next[r] < end[r]) {
+                int value = buf.get(next[r]);
+                int d = ((value >>> shift) & MASK) ^ flip;
+                while (d != r) {
+                    int displaced = buf.get(next[d]);
+                    buf.put(next[d]++, value);
+                    value = displaced;
+                    d = ((value >>> shift) & MASK) ^ flip;
+                }
+                buf.put(next[r]++, value);
+            }
+        }
+
+        if (shift == 0) return;
+        int start = lo;
+        for (int r = 0; r < R; r++) {
+            int stop = end[r];
+            if (stop - start > RADIX_CUTOFF) radixSort(buf, start, stop, shift - BITS);
+            else if (stop - start > 1) introSort(buf, start, stop, IntroSort.depthLimit(stop - start));
+            start = stop;
+        }
+    }
+
+    // IntroSort.sort(int[], lo, hi, depth) on a buffer
+    private void introSort(IntBuffer buf, int lo, int hi, int depth) {
+        while (hi - lo > IntroSort.INSERTION_SORT_CUTOFF) {
+            if (depth == 0) {
+                heapSort(buf, lo, hi);
+                return;
+            }
+            depth--;
+
+            int p = partition(buf, lo, hi - 1);
+            if (p - lo < hi - p) {
+                introSort(buf, lo, p, depth);
+                lo = p + 1;
+            } else {
+                introSort(buf, p + 1, hi, depth);
+                hi = p;
+            }
+        }
+        insertionSort(buf, lo, hi);
+    }
+
+    private static int partition(IntBuffer buf, int lo, int hi) {
+        swap(buf, lo, median3(buf, lo, (lo + hi) >>> 1, hi));
+        int pivot = buf.get(lo);
+
+        int i = lo, j = hi + 1;
+        while (true) {
+            while (buf.get(++i) < pivot)
+                if (i == hi) break;
+            while (pivot < buf.get(--j))
+                if (j == lo) break;
+            if (i >= j) break;
+            swap(buf, i, j);
+        }
+
+        swap(buf, lo, j);
+        return j;
+    }
+
+    private static int median3(IntBuffer buf, int i, int j, int k) {
+        int a = buf.get(i), b = buf.get(j), c = buf.get(k);
+        return a < b
+                ? (b < c ? j : a < c ? k : i)
+                : (c < b ? j : c < a ? k : i);
+    }
+
+    private static void heapSort(IntBuffer buf, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--)
+            siftDown(buf, lo, n, i, buf.get(lo + i));
+        for (int end = n - 1; end > 0; end--) {
+            int value = buf.get(lo + end);
+            buf.put(lo + end, buf.get(lo));
+            siftDown(buf, lo, end, 0, value);
+        }
+    }
+
+    // Places value in the hole at i of the max-heap buf[lo..lo+n)
+    private static void siftDown(IntBuffer buf, int lo, int n, int i, int value) {
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && buf.get(lo + child + 1) > buf.get(lo + child)) child++;
+            int c = buf.get(lo + child);
+            if (c <= value) break;
+            buf.put(lo + i, c);
+            i = child;
+        }
+        buf.put(lo + i, value);
+    }
+
+    private static void insertionSort(IntBuffer buf, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int value = buf.get(i);
+            int j = i - 1;
+            while (j >= lo && buf.get(j) > value) {
+                buf.put(j + 1, buf.get(j));
+                j--;
+            }
+            buf.put(j + 1, value);
+        }
+    }
+
+    private static void swap(IntBuffer buf, int i, int j) {
+        int temp = buf.get(i);
+        buf.put(i, buf.get(j));
+        buf.put(j, temp);
+    }
+
+    private void radixSort(LongBuffer buf, int lo, int hi, int shift) {
+        int flip = shift == Long.SIZE - BITS ? 0x80 : 0;
+
+        int[] next = new int[R + 1];
+        for (int i = lo; i < hi; i++)
+            next[(((int) (buf.get(i) >>> shift) & MASK) ^ flip) + 1]++;
+
+        next[0] = lo;
+        for (int r = 0; r < R; r++)
+            next[r + 1] += next[r];
+        int[] end = new int[R];
+        System.arraycopy(next, 1, end, 0, R);
+
+        for (int r = 0; r < R; r++) {
+            while (next[r] < end[r]) {
+                long value = buf.get(next[r]);
+                int d = ((int) (value >>> shift) & MASK) ^ flip;
+                while (d != r) {
+                    long displaced = buf.get(next[d]);
+                    buf.put(next[d]++, value);
+                    value = displaced;
+                    d = ((int) (value >>> shift) & MASK) ^ flip;
+                }
+                buf.put(next[r]++, value);
+            }
+        }
+
+        if (shift == 0) return;
+        int start = lo;
+        for (int r = 0; r < R; r++) {
+            int stop = end[r];
+            if (stop - start > RADIX_CUTOFF) radixSort(buf, start, stop, shift - BITS);
+            else if (stop - start > 1) introSort(buf, start, stop, IntroSort.depthLimit(stop - start));
+            start = stop;
+        }
+    }
+
+    private void introSort(LongBuffer buf, int lo, int hi, int depth) {
+        while (hi - lo > IntroSort.INSERTION_SORT_CUTOFF) {
+            if (depth == 0) {
+                heapSort(buf, lo, hi);
+                return;
+            }
+            depth--;
+
+            int p = partition(buf, lo, hi - 1);
+            if (p - lo < hi - p) {
+                introSort(buf, lo, p, depth);
+                lo = p + 1;
+            } else {
+                introSort(buf, p + 1, hi, depth);
+                hi = p;
+            }
+        }
+        insertionSort(buf, lo, hi);
+    }
+
+    private static int partition(LongBuffer buf, int lo, int hi) {
+        swap(buf, lo, median3(buf, lo, (lo + hi) >>> 1, hi));
+        long pivot = buf.get(lo);
+
+        int i = lo, j = hi + 1;
+        while (true) {
+            while (buf.get(++i) < pivot)
+                if (i == hi) break;
+            while (pivot < buf.get(--j))
+                if (j == lo) break;
+            if (i >= j) break;
+            swap(buf, i, j);
+        }
+
+        swap(buf, lo, j);
+        return j;
+    }
+
+    private static int median3(LongBuffer buf, int i, int j, int k) {
+        long a = buf.get(i), b = buf.get(j), c = buf.get(k);
+        return a < b
+                ? (b < c ? j : a < c ? k : i)
+                : (c < b ? j : c < a ? k : i);
+    }
+
+    private static void heapSort(LongBuffer buf, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--)
+            siftDown(buf, lo, n, i, buf.get(lo + i));
+        for (int end = n - 1; end > 0; end--) {
+            long value = buf.get(lo + end);
+            buf.put(lo + end, buf.get(lo));
+            siftDown(buf, lo, end, 0, value);
+        }
+    }
+
+    private static void siftDown(LongBuffer buf, int lo, int n, int i, long value) {
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && buf.get(lo + child + 1) > buf.get(lo + child)) child++;
+            long c = buf.get(lo + child);
+            if (c <= value) break;
+            buf.put(lo + i, c);
+            i = child;
+        }
+        buf.put(lo + i, value);
+    }
+
+    private static void insertionSort(LongBuffer buf, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long value = buf.get(i);
+            int j = i - 1;
+            while (j >= lo && buf.get(j) > value) {
+                buf.put(j + 1, buf.get(j));
+                j--;
+            }
+            buf.put(j + 1, value);
+        }
+    }
+
+    private static void swap(LongBuffer buf, int i, int j) {
+        long temp = buf.get(i);
+        buf.put(i, buf.get(j));
+        buf.put(j, temp);
+    }
+
+    @Override
+    public void test() {
+        IntBuffer buf = ByteBuffer.allocateDirect(5 * Integer.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+        buf.put(new int[] { 12, -11, 13, 5, -6 }).flip();
+        sort(buf);
+        while (buf.hasRemaining()) System.out.print(buf.get() + " ");
+        System.out.println();
+    }
+
+}
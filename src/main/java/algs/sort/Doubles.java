@@ -0,0 +1,54 @@
+package algs.sort;
+
+/**
+ * Helpers that let the double[] sorts compare with plain {@code <}
+ * and still end up in Double.compare order.
+ *
+ * NaN is unordered under {@code <} and -0.0 == 0.0, so a sort first moves
+ * the NaNs to the end, sorts the rest, and then puts the negative zeros
+ * in front of the positive ones.
+ */
+final class Doubles {
+
+    // don't instantiate
+    private Doubles() { }
+
+    /**
+     * Moves every NaN to the end of arr and returns the
+     * number of non-NaN values, which are left in arr[0..end)
+     */
+    static int moveNaNsToEnd(double[] arr) {
+        int end = arr.length;
+        for (int i = end - 1; i >= 0; i--) {
+            if (arr[i] != arr[i]) {
+                arr[i] = arr[--end];
+                arr[end] = Double.NaN;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * arr[lo..hi) is sorted under {@code <}; reorders its run of zeros
+     * so that every -0.0 comes before every 0.0
+     */
+    static void orderZeros(double[] arr, int lo, int hi) {
+        // First index holding a value >= 0.0
+        int left = lo, right = hi;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (arr[mid] < 0.0) left = mid + 1;
+            else right = mid;
+        }
+
+        int negativeZeros = 0, end = left;
+        while (end < hi && arr[end] == 0.0) {
+            if (Double.doubleToRawLongBits(arr[end]) != 0L) negativeZeros++;
+            end++;
+        }
+
+        for (int i = left; i < end; i++)
+            arr[i] = i - left < negativeZeros ? -0.0 : 0.0;
+    }
+
+}
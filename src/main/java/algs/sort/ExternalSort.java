@@ -0,0 +1,321 @@
+package algs.sort;
+
+import algs.shared.datastructure.IndexMinPQ;
+import algs.shared.model.BinaryIn;
+import algs.shared.model.BinaryOut;
+import algs.shared.util.Testable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * O(n log n) time, O(n) disk, memory bounded by the budget
+ *
+ * External merge sort for binary files of ints or longs that don't fit
+ * in the heap. The file format is the one of BinaryOut.write(int) and
+ * BinaryOut.write(long): raw big-endian values, no header.
+ *
+ * 1. Run formation: the input is mapped one chunk at a time, each chunk
+ *    (as large as the memory budget allows) is sorted in memory with
+ *    IntroSort and written to a memory-mapped run file.
+ * 2. Merging: up to fanIn runs at a time are merged into one, with an
+ *    IndexMinPQ holding the current head of every run. Each run is read
+ *    with positional reads into its own small direct buffer, reused for
+ *    the whole run, so fanIn is the budget divided by the buffer size.
+ *    Merge passes repeat until one run is left.
+ *
+ * Merging does not map the runs: a MappedByteBuffer is only released
+ * when it is garbage collected, so mapping every window of every run
+ * would pile up mappings and address space during a long merge.
+ *
+ * The sort methods return the number of passes over the data: one for
+ * run formation plus one per merge level.
+ */
+public class ExternalSort implements Testable {
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    // Buffer through which each run is read or written during a merge
+    static final int BLOCK_BYTES = 1 << 16;
+
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final IntroSort sorter = new IntroSort();
+
+    public ExternalSort() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    public ExternalSort(long memoryBudget) {
+        this(memoryBudget, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param memoryBudget bytes used for the in-memory chunk and the
+     *                     merge buffers, at least 3 * BLOCK_BYTES so
+     *                     that two runs and the output fit
+     * @param tempDir      directory where the run files are created
+     */
+    public ExternalSort(long memoryBudget, Path tempDir) {
+        if (memoryBudget < 3L * BLOCK_BYTES)
+            throw new IllegalArgumentException("memory budget must be at least " + 3 * BLOCK_BYTES + " bytes: " + memoryBudget);
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    public int sortInts(Path input, Path output) throws IOException {
+        return sort(input, output, Integer.BYTES);
+    }
+
+    public int sortLongs(Path input, Path output) throws IOException {
+        return sort(input, output, Long.BYTES);
+    }
+
+    // Runs merged at once: one buffer per run plus one for the output
+    int fanIn() {
+        return (int) Math.min(Integer.MAX_VALUE - 1, memoryBudget / BLOCK_BYTES - 1);
+    }
+
+    // Elements sorted in memory at once; a chunk is mapped in one piece
+    int chunkLength(int width) {
+        return (int) Math.min(memoryBudget / width, Integer.MAX_VALUE / width);
+    }
+
+    private int sort(Path input, Path output, int width) throws IOException {
+        Path dir = Files.createTempDirectory(tempDir, "extsort");
+        try {
+            List<Path> runs = createRuns(input, dir, width);
+            int passes = 1;
+
+            int fanIn = fanIn();
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    Path run = Files.createTempFile(dir, "run", ".bin");
+                    merge(group, run, width);
+                    for (Path p : group) Files.delete(p);
+                    merged.add(run);
+                }
+                runs = merged;
+                passes++;
+            }
+
+            if (runs.isEmpty()) {
+                Files.write(output, new byte[0]);
+            } else if (runs.size() == 1) {
+                Files.move(runs.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                merge(runs, output, width);
+                passes++;
+            }
+            return passes;
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    /**
+     * Phase 1: sorts the input chunk by chunk into run files
+     */
+    private List<Path> createRuns(Path input, Path dir, int width) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel in = FileChannel.open(input, READ)) {
+            long size = in.size();
+            if (size % width != 0)
+                throw new IllegalArgumentException("file size " + size + " is not a multiple of " + width + " bytes");
+
+            long total = size / width;
+            int chunk = (int) Math.min(chunkLength(width), total);
+            int[] ints = width == Integer.BYTES ? new int[chunk] : null;
+            long[] longs = width == Long.BYTES ? new long[chunk] : null;
+
+            for (long start = 0; start < total; start += chunk) {
+                int count = (int) Math.min(chunk, total - start);
+                long bytes = (long) count * width;
+                MappedByteBuffer src = in.map(FileChannel.MapMode.READ_ONLY, start * width, bytes);
+
+                Path run = Files.createTempFile(dir, "run", ".bin");
+                try (FileChannel out = FileChannel.open(run, READ, WRITE)) {
+                    MappedByteBuffer dst = out.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                    if (ints != null) {
+                        src.asIntBuffer().get(ints, 0, count);
+                        sorter.sort(ints, 0, count);
+                        dst.asIntBuffer().put(ints, 0, count);
+                    } else {
+                        src.asLongBuffer().get(longs, 0, count);
+                        sorter.sort(longs, 0, count);
+                        dst.asLongBuffer().put(longs, 0, count);
+                    }
+                }
+                runs.add(run);
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Phase 2: k-way merge of the sorted runs into output. The priority
+     * queue is indexed by run number, so after removing the minimum we
+     * know which run to refill from.
+     */
+    private void merge(List<Path> runs, Path output, int width) throws IOException {
+        int k = runs.size();
+        RunReader[] readers = new RunReader[k];
+        try {
+            for (int i = 0; i < k; i++)
+                readers[i] = new RunReader(runs.get(i), width);
+
+            IndexMinPQ<Long> pq = new IndexMinPQ<>(k);
+            for (int i = 0; i < k; i++)
+                if (readers[i].hasNext()) pq.insert(i, readers[i].next());
+
+            try (RunWriter out = new RunWriter(output, width)) {
+                while (!pq.isEmpty()) {
+                    long min = pq.minKey();
+                    int i = pq.delMin();
+                    out.write(min);
+                    if (readers[i].hasNext()) pq.insert(i, readers[i].next());
+                }
+            }
+        } finally {
+            for (RunReader reader : readers)
+                if (reader != null) reader.close();
+        }
+    }
+
+    /**
+     * Sequential reader of a run file, one buffer of positional reads
+     * at a time
+     */
+    private static final class RunReader implements Closeable {
+        private final FileChannel channel;
+        private final int width;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_BYTES);
+        private long position;  // file offset of the next buffer
+        private long remaining; // elements not yet returned
+
+        RunReader(Path path, int width) throws IOException {
+            this.channel = FileChannel.open(path, READ);
+            this.width = width;
+            this.remaining = channel.size() / width;
+            buffer.limit(0);
+        }
+
+        boolean hasNext() {
+            return remaining > 0;
+        }
+
+        long next() {
+            if (!buffer.hasRemaining()) {
+                try {
+                    fill();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            remaining--;
+            return width == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+        }
+
+        private void fill() throws IOException {
+            buffer.clear();
+            buffer.limit((int) Math.min(BLOCK_BYTES, remaining * width));
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) throw new EOFException("run file ended early");
+                position += read;
+            }
+            buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Sequential writer of a run file, one buffer of positional writes
+     * at a time
+     */
+    private static final class RunWriter implements Closeable {
+        private final FileChannel channel;
+        private final int width;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_BYTES);
+        private long position;
+
+        RunWriter(Path path, int width) throws IOException {
+            this.channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+            this.width = width;
+        }
+
+        void write(long value) throws IOException {
+            if (!buffer.hasRemaining()) flush();
+            if (width == Integer.BYTES) buffer.putInt((int) value);
+            else buffer.putLong(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                position += channel.write(buffer, position);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Override
+    public void test() {
+        try {
+            Path input = Files.createTempFile("extsort-in", ".bin");
+            Path output = Files.createTempFile("extsort-out", ".bin");
+
+            BinaryOut out = new BinaryOut(input.toString());
+            for (int value : new int[] { 12, 11, 13, 5, 6 }) out.write(value);
+            out.close();
+
+            int passes = sortInts(input, output);
+
+            BinaryIn in = new BinaryIn(output.toString());
+            while (!in.isEmpty()) System.out.print(in.readInt() + " ");
+            System.out.println();
+            System.out.println("passes: " + passes);
+
+            Files.delete(input);
+            Files.delete(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -3,54 +3,300 @@ package algs.sort;
 import algs.shared.util.ArrayHelper;
 import algs.shared.util.Testable;
 
+import java.util.Comparator;
+
 /**
  * Best, Average, Worst: O(n log n)
+ *
+ * Iterative heap sort on a d-ary max-heap (binary by default).
+ *
+ * Extraction uses Floyd's "bounce": the element moved to the root
+ * almost always belongs near the bottom, so instead of comparing it
+ * against the children at every level, the hole left by the root is
+ * walked down to a leaf along the largest children, and the element
+ * is then sifted up from there. That saves the comparison against the
+ * element on the way down, roughly halving the comparisons for a
+ * binary heap.
+ *
+ * A 4-ary heap is half as deep and its children sit next to each
+ * other in memory, which pays off on arrays that don't fit in cache.
  */
-public class HeapSort implements Testable {
+public class HeapSort implements Sorter, Testable {
+
+    public static final int BINARY = 2;
+    public static final int QUATERNARY = 4;
+
+    private final int d;
+    private final int shift; // log2(d)
+
+    public HeapSort() {
+        this(BINARY);
+    }
 
+    /**
+     * @param arity number of children per heap node,
+     *              a power of two no smaller than 2
+     */
+    public HeapSort(int arity) {
+        if (arity < 2 || Integer.bitCount(arity) != 1)
+            throw new IllegalArgumentException("arity must be a power of two >= 2: " + arity);
+        this.d = arity;
+        this.shift = Integer.numberOfTrailingZeros(arity);
+    }
+
+    @Override
     public void sort(int[] arr) {
-        int n = arr.length;
+        sort(arr, 0, arr.length);
+    }
+
+    @Override
+    public void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    @Override
+    public void sort(double[] arr) {
+        int end = Doubles.moveNaNsToEnd(arr);
+        sort(arr, 0, end);
+        Doubles.orderZeros(arr, 0, end);
+    }
+
+    @Override
+    public <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, 0, arr.length, comparator);
+    }
+
+    /**
+     * Sorts arr[lo..hi). The heap is laid out relative to lo,
+     * so arr[lo] is the root and the children of node i are
+     * nodes d*i+1 .. d*i+d. The arity is a power of two so
+     * these are shifts rather than multiplications and divisions.
+     * Node i has children only while i <= (n - 2) / d; the walks test
+     * that before shifting, because d*i+1 overflows an int for the last
+     * nodes of heaps larger than 2^31 / d.
+     */
+    void sort(int[] arr, int lo, int hi) {
+        int n = hi - lo;
+        if (n < 2) return;
 
         // Build heap (rearrange array)
-        for (int i = n / 2 - 1; i >= 0; i--)
-            heapify(arr, n, i);
+        for (int i = (n - 2) >>> shift; i >= 0; i--)
+            siftDown(arr, lo, n, i);
+
+        // One by one move the root to the end of the shrinking heap
+        for (int end = n - 1; end > 0; end--) {
+            int value = arr[lo + end];
+            arr[lo + end] = arr[lo];
+            bounce(arr, lo, end, value);
+        }
+    }
 
-        // One by one extract an element from heap
-        for (int i = n - 1 ; i > 0 ; i--) {
-            // Move current root to end
-            int temp = arr[0];
-            arr[0] = arr[i];
-            arr[i] = temp;
+    // Moves arr[lo + i] down until it is not smaller than its children
+    private void siftDown(int[] arr, int lo, int n, int i) {
+        int value = arr[lo + i];
+        int child;
+        while (i <= (n - 2) >> shift) {
+            child = (i << shift) + 1;
+            int largest = largestChild(arr, lo, n, child);
+            if (arr[lo + largest] <= value) break;
+            arr[lo + i] = arr[lo + largest];
+            i = largest;
+        }
+        arr[lo + i] = value;
+    }
 
-            // call max heapify on the reduced heap
-            heapify(arr, i, 0);
+    // Refills the root of a heap of size n with value: walks the hole
+    // down to a leaf, then sifts value up from there
+    private void bounce(int[] arr, int lo, int n, int value) {
+        int hole = 0, child;
+        while (hole <= (n - 2) >> shift) {
+            child = (hole << shift) + 1;
+            int largest = largestChild(arr, lo, n, child);
+            arr[lo + hole] = arr[lo + largest];
+            hole = largest;
+        }
+        while (hole > 0) {
+            int parent = (hole - 1) >>> shift;
+            if (arr[lo + parent] >= value) break;
+            arr[lo + hole] = arr[lo + parent];
+            hole = parent;
         }
+        arr[lo + hole] = value;
     }
 
-    // To heapify a subtree rooted with node i which is
-    // an index in arr[]. n is size of heap
-   private void heapify(int[] arr, int n, int i) {
-        int largest = i; // Initialize largest as root
-        int l = 2*i + 1; // left = 2*i + 1
-        int r = 2*i + 2; // right = 2*i + 2
+    // Index of the largest of the (up to d) children starting at first
+    private int largestChild(int[] arr, int lo, int n, int first) {
+        // Binary heap: a single comparison, no loop
+        if (d == BINARY)
+            return first + 1 < n && arr[lo + first + 1] > arr[lo + first] ? first + 1 : first;
 
-        // If left child is larger than root
-        if (l < n && arr[l] > arr[largest])
-            largest = l;
+        int largest = first;
+        int last = first + Math.min(d, n - first);
+        for (int c = first + 1; c < last; c++)
+            if (arr[lo + c] > arr[lo + largest]) largest = c;
+        return largest;
+    }
+
+    void sort(long[] arr, int lo, int hi) {
+        int n = hi - lo;
+        if (n < 2) return;
+        for (int i = (n - 2) >>> shift; i >= 0; i--)
+            siftDown(arr, lo, n, i);
 
-        // If right child is larger than largest so far
-        if (r < n && arr[r] > arr[largest])
-            largest = r;
+        for (int end = n - 1; end > 0; end--) {
+            long value = arr[lo + end];
+            arr[lo + end] = arr[lo];
+            bounce(arr, lo, end, value);
+        }
+    }
 
-        // If largest is not root
-        if (largest != i) {
-            int swap = arr[i];
-            arr[i] = arr[largest];
-            arr[largest] = swap;
+    private void siftDown(long[] arr, int lo, int n, int i) {
+        long value = arr[lo + i];
+        int child;
+        while (i <= (n - 2) >> shift) {
+            child = (i << shift) + 1;
+            int largest = largestChild(arr, lo, n, child);
+            if (arr[lo + largest] <= value) break;
+            arr[lo + i] = arr[lo + largest];
+            i = largest;
+        }
+        arr[lo + i] = value;
+    }
 
-            // Recursively heapify the affected sub-tree
-            heapify(arr, n, largest);
+    private void bounce(long[] arr, int lo, int n, long value) {
+        int hole = 0, child;
+        while (hole <= (n - 2) >> shift) {
+            child = (hole << shift) + 1;
+            int largest = largestChild(arr, lo, n, child);
+            arr[lo + hole] = arr[lo + largest];
+            hole = largest;
         }
+        while (hole > 0) {
+            int parent = (hole - 1) >>> shift;
+            if (arr[lo + parent] >= value) break;
+            arr[lo + hole] = arr[lo + parent];
+            hole = parent;
+        }
+        arr[lo + hole] = value;
+    }
+
+    private int largestChild(long[] arr, int lo, int n, int first) {
+        if (d == BINARY)
+            return first + 1 < n && arr[lo + first + 1] > arr[lo + first] ? first + 1 : first;
+
+        int largest = first;
+        int last = first + Math.min(d, n - first);
+        for (int c = first + 1; c < last; c++)
+            if (arr[lo + c] > arr[lo + largest]) largest = c;
+        return largest;
+    }
+
+    void sort(double[] arr, int lo, int hi) {
+        int n = hi - lo;
+        if (n < 2) return;
+        for (int i = (n - 2) >>> shift; i >= 0; i--)
+            siftDown(arr, lo, n, i);
+
+        for (int end = n - 1; end > 0; end--) {
+            double value = arr[lo + end];
+            arr[lo + end] = arr[lo];
+            bounce(arr, lo, end, value);
+        }
+    }
+
+    private void siftDown(double[] arr, int lo, int n, int i) {
+        double value = arr[lo + i];
+        int child;
+        while (i <= (n - 2) >> shift) {
+            child = (i << shift) + 1;
+            int largest = largestChild(arr, lo, n, child);
+            if (arr[lo + largest] <= value) break;
+            arr[lo + i] = arr[lo + largest];
+            i = largest;
+        }
+        arr[lo + i] = value;
+    }
+
+    private void bounce(double[] arr, int lo, int n, double value) {
+        int hole = 0, child;
+        while (hole <= (n - 2) >> shift) {
+            child = (hole << shift) + 1;
+            int largest = largestChild(arr, lo, n, child);
+            arr[lo + hole] = arr[lo + largest];
+            hole = largest;
+        }
+        while (hole > 0) {
+            int parent = (hole - 1) >>> shift;
+            if (arr[lo + parent] >= value) break;
+            arr[lo + hole] = arr[lo + parent];
+            hole = parent;
+        }
+        arr[lo + hole] = value;
+    }
+
+    private int largestChild(double[] arr, int lo, int n, int first) {
+        if (d == BINARY)
+            return first + 1 < n && arr[lo + first + 1] > arr[lo + first] ? first + 1 : first;
+
+        int largest = first;
+        int last = first + Math.min(d, n - first);
+        for (int c = first + 1; c < last; c++)
+            if (arr[lo + c] > arr[lo + largest]) largest = c;
+        return largest;
+    }
+
+    <T> void sort(T[] arr, int lo, int hi, Comparator<? super T> c) {
+        int n = hi - lo;
+        if (n < 2) return;
+        for (int i = (n - 2) >>> shift; i >= 0; i--)
+            siftDown(arr, lo, n, i, c);
+
+        for (int end = n - 1; end > 0; end--) {
+            T value = arr[lo + end];
+            arr[lo + end] = arr[lo];
+            bounce(arr, lo, end, value, c);
+        }
+    }
+
+    private <T> void siftDown(T[] arr, int lo, int n, int i, Comparator<? super T> c) {
+        T value = arr[lo + i];
+        int child;
+        while (i <= (n - 2) >> shift) {
+            child = (i << shift) + 1;
+            int largest = largestChild(arr, lo, n, child, c);
+            if (c.compare(arr[lo + largest], value) <= 0) break;
+            arr[lo + i] = arr[lo + largest];
+            i = largest;
+        }
+        arr[lo + i] = value;
+    }
+
+    private <T> void bounce(T[] arr, int lo, int n, T value, Comparator<? super T> c) {
+        int hole = 0, child;
+        while (hole <= (n - 2) >> shift) {
+            child = (hole << shift) + 1;
+            int largest = largestChild(arr, lo, n, child, c);
+            arr[lo + hole] = arr[lo + largest];
+            hole = largest;
+        }
+        while (hole > 0) {
+            int parent = (hole - 1) >>> shift;
+            if (c.compare(arr[lo + parent], value) >= 0) break;
+            arr[lo + hole] = arr[lo + parent];
+            hole = parent;
+        }
+        arr[lo + hole] = value;
+    }
+
+    private <T> int largestChild(T[] arr, int lo, int n, int first, Comparator<? super T> c) {
+        if (d == BINARY)
+            return first + 1 < n && c.compare(arr[lo + first + 1], arr[lo + first]) > 0 ? first + 1 : first;
+
+        int largest = first;
+        int last = first + Math.min(d, n - first);
+        for (int k = first + 1; k < last; k++)
+            if (c.compare(arr[lo + k], arr[lo + largest]) > 0) largest = k;
+        return largest;
     }
 
     @Override
@@ -58,6 +304,10 @@ public class HeapSort implements Testable {
         int[] arr = { 12, 11, 13, 5, 6 };
         sort(arr);
         ArrayHelper.print(arr);
+
+        arr = new int[] { 12, 11, 13, 5, 6 };
+        new HeapSort(QUATERNARY).sort(arr);
+        ArrayHelper.print(arr);
     }
 
 }
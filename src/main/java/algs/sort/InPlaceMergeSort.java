@@ -0,0 +1,525 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Best: O(n) Average, Worst: O(n log2 n)
+ *
+ * Stable merge sort that needs no O(n) auxiliary array. Runs are merged
+ * in place: when the shorter run fits in a small buffer the merge is the
+ * usual linear one through the buffer, otherwise the runs are split with
+ * a rotation (as in std::inplace_merge) until the pieces fit.
+ *
+ * Merging m elements that way costs O(m log(m / b)) moves with a buffer
+ * of b, so the sort is O(n log2 n) with or without a buffer; only a
+ * block merge (WikiSort, GrailSort) reaches O(n log n) in place. The
+ * sqrt(n) buffer makes every merge of runs up to sqrt(n) linear, which
+ * halves the levels that need rotations. Comparisons stay O(n log n).
+ *
+ * The default buffer holds ceil(sqrt(n)) elements, so sorting 4 GB of
+ * ints needs about 128 KB extra instead of another 4 GB. With a buffer
+ * of 0 the sort uses O(1) extra space plus an O(log n) stack, and every
+ * merge above the insertion-sorted runs goes through rotations.
+ */
+public class InPlaceMergeSort implements Sorter, Testable {
+
+    public static final int SQRT_BUFFER = -1;
+
+    private final int bufferSize;
+    private final InsertionSort insertionSort = new InsertionSort();
+
+    public InPlaceMergeSort() {
+        this(SQRT_BUFFER);
+    }
+
+    /**
+     * @param bufferSize elements of the merge buffer: SQRT_BUFFER for
+     *                   ceil(sqrt(n)), or a fixed size such as 0
+     */
+    public InPlaceMergeSort(int bufferSize) {
+        if (bufferSize < 0 && bufferSize != SQRT_BUFFER)
+            throw new IllegalArgumentException("buffer size must be >= 0 or SQRT_BUFFER: " + bufferSize);
+        this.bufferSize = bufferSize;
+    }
+
+    private int bufferLength(int n) {
+        return bufferSize == SQRT_BUFFER ? (int) Math.ceil(Math.sqrt(n)) : Math.min(bufferSize, n);
+    }
+
+    @Override
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length, new int[bufferLength(arr.length)]);
+    }
+
+    @Override
+    public void sort(long[] arr) {
+        sort(arr, 0, arr.length, new long[bufferLength(arr.length)]);
+    }
+
+    @Override
+    public void sort(double[] arr) {
+        int end = Doubles.moveNaNsToEnd(arr);
+        sort(arr, 0, end, new double[bufferLength(end)]);
+        Doubles.orderZeros(arr, 0, end);
+    }
+
+    /**
+     * Stable: equal elements keep their original order
+     */
+    @Override
+    public <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, 0, arr.length, Arrays.copyOf(arr, bufferLength(arr.length)), comparator);
+    }
+
+    /**
+     * Sorts arr[lo..hi): runs of INSERTION_SORT_CUTOFF elements are
+     * insertion sorted, then merged bottom-up with widths doubling.
+     * The loop indexes are longs: past 2^30 elements the next width and
+     * run start would overflow an int.
+     */
+    void sort(int[] arr, int lo, int hi, int[] buf) {
+        int run = IntroSort.INSERTION_SORT_CUTOFF;
+        for (long i = lo; i < hi; i += run)
+            insertionSort.sort(arr, (int) i, (int) Math.min(i + run, hi));
+
+        for (long width = run; width < hi - lo; width <<= 1)
+            for (long mid = lo + width; mid < hi; mid += width << 1)
+                merge(arr, (int) (mid - width), (int) mid, (int) Math.min(mid + width, hi), buf);
+    }
+
+    /**
+     * Stable merge of arr[lo..mid) and arr[mid..hi). If the shorter run
+     * fits in buf it is moved there and merged back in one pass;
+     * otherwise the larger run is cut at its middle, the matching cut in
+     * the other run is found by binary search, the two middle blocks are
+     * swapped with a rotation, and both halves are merged recursively.
+     */
+    private void merge(int[] arr, int lo, int mid, int hi, int[] buf) {
+        while (lo < mid && mid < hi) {
+            // Runs already in order
+            if (arr[mid - 1] <= arr[mid]) return;
+
+            int n1 = mid - lo, n2 = hi - mid;
+            if (n1 <= n2 && n1 <= buf.length) {
+                mergeLo(arr, lo, mid, hi, buf);
+                return;
+            }
+            if (n2 <= buf.length) {
+                mergeHi(arr, lo, mid, hi, buf);
+                return;
+            }
+
+            int cut1, cut2;
+            if (n1 >= n2) {
+                cut1 = lo + n1 / 2;
+                cut2 = lowerBound(arr, mid, hi, arr[cut1]);
+            } else {
+                cut2 = mid + n2 / 2;
+                cut1 = upperBound(arr, lo, mid, arr[cut2]);
+            }
+            rotate(arr, cut1, mid, cut2);
+            int newMid = cut1 + (cut2 - mid);
+
+            // Recurse into the smaller side, loop on the larger one
+            if (newMid - lo < hi - newMid) {
+                merge(arr, lo, cut1, newMid, buf);
+                lo = newMid;
+                mid = cut2;
+            } else {
+                merge(arr, newMid, cut2, hi, buf);
+                hi = newMid;
+                mid = cut1;
+            }
+        }
+    }
+
+    // Left run moved to buf, merged left to right
+    private static void mergeLo(int[] arr, int lo, int mid, int hi, int[] buf) {
+        int n1 = mid - lo;
+        System.arraycopy(arr, lo, buf, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            if (arr[j] < buf[i]) arr[k++] = arr[j++];
+            else arr[k++] = buf[i++];
+        }
+        System.arraycopy(buf, i, arr, k, n1 - i);
+    }
+
+    // Right run moved to buf, merged right to left
+    private static void mergeHi(int[] arr, int lo, int mid, int hi, int[] buf) {
+        int n2 = hi - mid;
+        System.arraycopy(arr, mid, buf, 0, n2);
+        int i = mid - 1, j = n2 - 1, k = hi - 1;
+        while (i >= lo && j >= 0) {
+            if (buf[j] < arr[i]) arr[k--] = arr[i--];
+            else arr[k--] = buf[j--];
+        }
+        System.arraycopy(buf, 0, arr, lo, j + 1);
+    }
+
+    // First index in arr[lo..hi) whose value is not less than key
+    private static int lowerBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (arr[m] < key) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+
+    // First index in arr[lo..hi) whose value is greater than key
+    private static int upperBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (key < arr[m]) hi = m;
+            else lo = m + 1;
+        }
+        return lo;
+    }
+
+    // Swaps the blocks arr[lo..mid) and arr[mid..hi) with three reversals
+    private static void rotate(int[] arr, int lo, int mid, int hi) {
+        reverse(arr, lo, mid);
+        reverse(arr, mid, hi);
+        reverse(arr, lo, hi);
+    }
+
+    private static void reverse(int[] arr, int lo, int hi) {
+        for (hi--; lo < hi; lo++, hi--) {
+            int temp = arr[lo];
+            arr[lo] = arr[hi];
+            arr[hi] = temp;
+        }
+    }
+
+    void sort(long[] arr, int lo, int hi, long[] buf) {
+        int run = IntroSort.INSERTION_SORT_CUTOFF;
+        for (long i = lo; i < hi; i += run)
+            insertionSort.sort(arr, (int) i, (int) Math.min(i + run, hi));
+
+        for (long width = run; width < hi - lo; width <<= 1)
+            for (long mid = lo + width; mid < hi; mid += width << 1)
+                merge(arr, (int) (mid - width), (int) mid, (int) Math.min(mid + width, hi), buf);
+    }
+
+    private void merge(long[] arr, int lo, int mid, int hi, long[] buf) {
+        while (lo < mid && mid < hi) {
+            // Runs already in order
+            if (arr[mid - 1] <= arr[mid]) return;
+
+            int n1 = mid - lo, n2 = hi - mid;
+            if (n1 <= n2 && n1 <= buf.length) {
+                mergeLo(arr, lo, mid, hi, buf);
+                return;
+            }
+            if (n2 <= buf.length) {
+                mergeHi(arr, lo, mid, hi, buf);
+                return;
+            }
+
+            int cut1, cut2;
+            if (n1 >= n2) {
+                cut1 = lo + n1 / 2;
+                cut2 = lowerBound(arr, mid, hi, arr[cut1]);
+            } else {
+                cut2 = mid + n2 / 2;
+                cut1 = upperBound(arr, lo, mid, arr[cut2]);
+            }
+            rotate(arr, cut1, mid, cut2);
+            int newMid = cut1 + (cut2 - mid);
+
+            // Recurse into the smaller side, loop on the larger one
+            if (newMid - lo < hi - newMid) {
+                merge(arr, lo, cut1, newMid, buf);
+                lo = newMid;
+                mid = cut2;
+            } else {
+                merge(arr, newMid, cut2, hi, buf);
+                hi = newMid;
+                mid = cut1;
+            }
+        }
+    }
+
+    // Left run moved to buf, merged left to right
+    private static void mergeLo(long[] arr, int lo, int mid, int hi, long[] buf) {
+        int n1 = mid - lo;
+        System.arraycopy(arr, lo, buf, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            if (arr[j] < buf[i]) arr[k++] = arr[j++];
+            else arr[k++] = buf[i++];
+        }
+        System.arraycopy(buf, i, arr, k, n1 - i);
+    }
+
+    // Right run moved to buf, merged right to left
+    private static void mergeHi(long[] arr, int lo, int mid, int hi, long[] buf) {
+        int n2 = hi - mid;
+        System.arraycopy(arr, mid, buf, 0, n2);
+        int i = mid - 1, j = n2 - 1, k = hi - 1;
+        while (i >= lo && j >= 0) {
+            if (buf[j] < arr[i]) arr[k--] = arr[i--];
+            else arr[k--] = buf[j--];
+        }
+        System.arraycopy(buf, 0, arr, lo, j + 1);
+    }
+
+    private static int lowerBound(long[] arr, int lo, int hi, long key) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (arr[m] < key) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+
+    private static int upperBound(long[] arr, int lo, int hi, long key) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (key < arr[m]) hi = m;
+            else lo = m + 1;
+        }
+        return lo;
+    }
+
+    private static void rotate(long[] arr, int lo, int mid, int hi) {
+        reverse(arr, lo, mid);
+        reverse(arr, mid, hi);
+        reverse(arr, lo, hi);
+    }
+
+    private static void reverse(long[] arr, int lo, int hi) {
+        for (hi--; lo < hi; lo++, hi--) {
+            long temp = arr[lo];
+            arr[lo] = arr[hi];
+            arr[hi] = temp;
+        }
+    }
+
+    void sort(double[] arr, int lo, int hi, double[] buf) {
+        int run = IntroSort.INSERTION_SORT_CUTOFF;
+        for (long i = lo; i < hi; i += run)
+            insertionSort.sort(arr, (int) i, (int) Math.min(i + run, hi));
+
+        for (long width = run; width < hi - lo; width <<= 1)
+            for (long mid = lo + width; mid < hi; mid += width << 1)
+                merge(arr, (int) (mid - width), (int) mid, (int) Math.min(mid + width, hi), buf);
+    }
+
+    private void merge(double[] arr, int lo, int mid, int hi, double[] buf) {
+        while (lo < mid && mid < hi) {
+            // Runs already in order
+            if (arr[mid - 1] <= arr[mid]) return;
+
+            int n1 = mid - lo, n2 = hi - mid;
+            if (n1 <= n2 && n1 <= buf.length) {
+                mergeLo(arr, lo, mid, hi, buf);
+                return;
+            }
+            if (n2 <= buf.length) {
+                mergeHi(arr, lo, mid, hi, buf);
+                return;
+            }
+
+            int cut1, cut2;
+            if (n1 >= n2) {
+                cut1 = lo + n1 / 2;
+                cut2 = lowerBound(arr, mid, hi, arr[cut1]);
+            } else {
+                cut2 = mid + n2 / 2;
+                cut1 = upperBound(arr, lo, mid, arr[cut2]);
+            }
+            rotate(arr, cut1, mid, cut2);
+            int newMid = cut1 + (cut2 - mid);
+
+            // Recurse into the smaller side, loop on the larger one
+            if (newMid - lo < hi - newMid) {
+                merge(arr, lo, cut1, newMid, buf);
+                lo = newMid;
+                mid = cut2;
+            } else {
+                merge(arr, newMid, cut2, hi, buf);
+                hi = newMid;
+                mid = cut1;
+            }
+        }
+    }
+
+    // Left run moved to buf, merged left to right
+    private static void mergeLo(double[] arr, int lo, int mid, int hi, double[] buf) {
+        int n1 = mid - lo;
+        System.arraycopy(arr, lo, buf, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            if (arr[j] < buf[i]) arr[k++] = arr[j++];
+            else arr[k++] = buf[i++];
+        }
+        System.arraycopy(buf, i, arr, k, n1 - i);
+    }
+
+    // Right run moved to buf, merged right to left
+    private static void mergeHi(double[] arr, int lo, int mid, int hi, double[] buf) {
+        int n2 = hi - mid;
+        System.arraycopy(arr, mid, buf, 0, n2);
+        int i = mid - 1, j = n2 - 1, k = hi - 1;
+        while (i >= lo && j >= 0) {
+            if (buf[j] < arr[i]) arr[k--] = arr[i--];
+            else arr[k--] = buf[j--];
+        }
+        System.arraycopy(buf, 0, arr, lo, j + 1);
+    }
+
+    private static int lowerBound(double[] arr, int lo, int hi, double key) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (arr[m] < key) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] arr, int lo, int hi, double key) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (key < arr[m]) hi = m;
+            else lo = m + 1;
+        }
+        return lo;
+    }
+
+    private static void rotate(double[] arr, int lo, int mid, int hi) {
+        reverse(arr, lo, mid);
+        reverse(arr, mid, hi);
+        reverse(arr, lo, hi);
+    }
+
+    private static void reverse(double[] arr, int lo, int hi) {
+        for (hi--; lo < hi; lo++, hi--) {
+            double temp = arr[lo];
+            arr[lo] = arr[hi];
+            arr[hi] = temp;
+        }
+    }
+
+    <T> void sort(T[] arr, int lo, int hi, T[] buf, Comparator<? super T> c) {
+        int run = IntroSort.INSERTION_SORT_CUTOFF;
+        for (long i = lo; i < hi; i += run)
+            insertionSort.sort(arr, (int) i, (int) Math.min(i + run, hi), c);
+
+        for (long width = run; width < hi - lo; width <<= 1)
+            for (long mid = lo + width; mid < hi; mid += width << 1)
+                merge(arr, (int) (mid - width), (int) mid, (int) Math.min(mid + width, hi), buf, c);
+    }
+
+    private <T> void merge(T[] arr, int lo, int mid, int hi, T[] buf, Comparator<? super T> c) {
+        while (lo < mid && mid < hi) {
+            // Runs already in order
+            if (c.compare(arr[mid - 1], arr[mid]) <= 0) return;
+
+            int n1 = mid - lo, n2 = hi - mid;
+            if (n1 <= n2 && n1 <= buf.length) {
+                mergeLo(arr, lo, mid, hi, buf, c);
+                return;
+            }
+            if (n2 <= buf.length) {
+                mergeHi(arr, lo, mid, hi, buf, c);
+                return;
+            }
+
+            int cut1, cut2;
+            if (n1 >= n2) {
+                cut1 = lo + n1 / 2;
+                cut2 = lowerBound(arr, mid, hi, arr[cut1], c);
+            } else {
+                cut2 = mid + n2 / 2;
+                cut1 = upperBound(arr, lo, mid, arr[cut2], c);
+            }
+            rotate(arr, cut1, mid, cut2);
+            int newMid = cut1 + (cut2 - mid);
+
+            // Recurse into the smaller side, loop on the larger one
+            if (newMid - lo < hi - newMid) {
+                merge(arr, lo, cut1, newMid, buf, c);
+                lo = newMid;
+                mid = cut2;
+            } else {
+                merge(arr, newMid, cut2, hi, buf, c);
+                hi = newMid;
+                mid = cut1;
+            }
+        }
+    }
+
+    // Left run moved to buf, merged left to right
+    private static <T> void mergeLo(T[] arr, int lo, int mid, int hi, T[] buf, Comparator<? super T> c) {
+        int n1 = mid - lo;
+        System.arraycopy(arr, lo, buf, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            if (c.compare(arr[j], buf[i]) < 0) arr[k++] = arr[j++];
+            else arr[k++] = buf[i++];
+        }
+        System.arraycopy(buf, i, arr, k, n1 - i);
+    }
+
+    // Right run moved to buf, merged right to left
+    private static <T> void mergeHi(T[] arr, int lo, int mid, int hi, T[] buf, Comparator<? super T> c) {
+        int n2 = hi - mid;
+        System.arraycopy(arr, mid, buf, 0, n2);
+        int i = mid - 1, j = n2 - 1, k = hi - 1;
+        while (i >= lo && j >= 0) {
+            if (c.compare(buf[j], arr[i]) < 0) arr[k--] = arr[i--];
+            else arr[k--] = buf[j--];
+        }
+        System.arraycopy(buf, 0, arr, lo, j + 1);
+    }
+
+    private static <T> int lowerBound(T[] arr, int lo, int hi, T key, Comparator<? super T> c) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (c.compare(arr[m], key) < 0) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+
+    private static <T> int upperBound(T[] arr, int lo, int hi, T key, Comparator<? super T> c) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (c.compare(key, arr[m]) < 0) hi = m;
+            else lo = m + 1;
+        }
+        return lo;
+    }
+
+    private static <T> void rotate(T[] arr, int lo, int mid, int hi) {
+        reverse(arr, lo, mid);
+        reverse(arr, mid, hi);
+        reverse(arr, lo, hi);
+    }
+
+    private static <T> void reverse(T[] arr, int lo, int hi) {
+        for (hi--; lo < hi; lo++, hi--) {
+            T temp = arr[lo];
+            arr[lo] = arr[hi];
+            arr[hi] = temp;
+        }
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, 11, 13, 5, 6 };
+        sort(arr);
+        ArrayHelper.print(arr);
+
+        String[] words = { "pear", "fig", "apple", "kiwi", "plum", "date" };
+        new InPlaceMergeSort(0).sort(words, Comparator.comparingInt(String::length));
+        ArrayHelper.print(words);
+    }
+
+}
@@ -0,0 +1,208 @@
+package algs.sort;
+
+import algs.shared.datastructure.IndexMinPQ;
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * add - O(b log b) for a batch of b keys, plus O(log n) amortized merge
+ *       work per key in the background
+ * iterator - O(log r) per key over r runs
+ *
+ * Sorts a stream of int batches incrementally, in the style of an
+ * LSM tree:
+ * - each batch is sorted on arrival with IntroSort and kept as a run on
+ *   level 0;
+ * - when a level holds fanOut runs, a background thread merges them into
+ *   one run on the next level, so there are O(fanOut log n) runs at any
+ *   time and every key is merged O(log n) times in total;
+ * - iteration takes a snapshot of the current runs (runs never change once
+ *   built) and merges them lazily with an IndexMinPQ, so the first keys
+ *   are available right away and nothing is materialized.
+ *
+ * Adding and iterating are thread safe. close() stops the merge thread.
+ */
+public class IncrementalSorter implements Testable, AutoCloseable {
+
+    public static final int DEFAULT_FAN_OUT = 4;
+
+    private static final class Run {
+        final int[] keys;
+        final int level;
+        boolean merging = false;
+
+        Run(int[] keys, int level) {
+            this.keys = keys;
+            this.level = level;
+        }
+    }
+
+    private final int fanOut;
+    private final ExecutorService merger;
+    private final IntroSort introSort = new IntroSort();
+
+    private final List<Run> runs = new ArrayList<>();
+    private long size = 0;
+    private int pendingMerges = 0;
+
+    public IncrementalSorter() {
+        this(DEFAULT_FAN_OUT);
+    }
+
+    /**
+     * @param fanOut runs per level that trigger a merge into the next
+     *               level; larger values merge less often but leave more
+     *               runs for iteration to merge
+     */
+    public IncrementalSorter(int fanOut) {
+        if (fanOut < 2) throw new IllegalArgumentException("fan-out must be at least 2: " + fanOut);
+        this.fanOut = fanOut;
+        this.merger = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "incremental-sorter-merge");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sorts a copy of batch and adds it as a new run
+     */
+    public void add(int[] batch) {
+        if (batch.length == 0) return;
+        int[] keys = batch.clone();
+        introSort.sort(keys);
+
+        synchronized (this) {
+            runs.add(new Run(keys, 0));
+            size += keys.length;
+            scheduleMerge(0);
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Blocks until no background merge is pending
+     */
+    public synchronized void awaitMerges() throws InterruptedException {
+        while (pendingMerges > 0) wait();
+    }
+
+    /**
+     * Iterates over every key added so far, in ascending order. Keys
+     * added after this call are not seen.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new MergingIterator(snapshot());
+    }
+
+    public int[] toSortedArray() {
+        int[][] snapshot = snapshot();
+        int total = 0;
+        for (int[] keys : snapshot) total += keys.length;
+
+        int[] result = new int[total];
+        MergingIterator it = new MergingIterator(snapshot);
+        for (int k = 0; k < total; k++) result[k] = it.nextInt();
+        return result;
+    }
+
+    private synchronized int[][] snapshot() {
+        int[][] snapshot = new int[runs.size()][];
+        for (int i = 0; i < snapshot.length; i++) snapshot[i] = runs.get(i).keys;
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        merger.shutdown();
+    }
+
+    // Called with the lock held: starts a merge if the level is full
+    private void scheduleMerge(int level) {
+        List<Run> batch = new ArrayList<>(fanOut);
+        for (Run run : runs) {
+            if (run.level == level && !run.merging) {
+                batch.add(run);
+                if (batch.size() == fanOut) break;
+            }
+        }
+        if (batch.size() < fanOut) return;
+
+        for (Run run : batch) run.merging = true;
+        pendingMerges++;
+        merger.execute(() -> merge(batch, level + 1));
+    }
+
+    // Runs on the merge thread; the lock is only taken to swap the runs
+    private void merge(List<Run> batch, int level) {
+        int[][] inputs = new int[batch.size()][];
+        for (int i = 0; i < inputs.length; i++) inputs[i] = batch.get(i).keys;
+
+        int total = 0;
+        for (int[] keys : inputs) total += keys.length;
+        int[] merged = new int[total];
+        MergingIterator it = new MergingIterator(inputs);
+        for (int k = 0; k < total; k++) merged[k] = it.nextInt();
+
+        synchronized (this) {
+            runs.removeAll(batch);
+            runs.add(new Run(merged, level));
+            pendingMerges--;
+            scheduleMerge(level);
+            notifyAll();
+        }
+    }
+
+    /**
+     * k-way merge of sorted arrays. The priority queue is indexed by run,
+     * so after taking the minimum we know which run to refill from.
+     */
+    private static final class MergingIterator implements PrimitiveIterator.OfInt {
+        private final int[][] inputs;
+        private final int[] position;
+        private final IndexMinPQ<Integer> pq;
+
+        MergingIterator(int[][] inputs) {
+            this.inputs = inputs;
+            this.position = new int[inputs.length];
+            this.pq = new IndexMinPQ<>(inputs.length);
+            for (int i = 0; i < inputs.length; i++)
+                if (inputs[i].length > 0) pq.insert(i, inputs[i][position[i]++]);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pq.isEmpty();
+        }
+
+        @Override
+        public int nextInt() {
+            if (pq.isEmpty()) throw new NoSuchElementException();
+            int value = pq.minKey();
+            int i = pq.delMin();
+            if (position[i] < inputs[i].length) pq.insert(i, inputs[i][position[i]++]);
+            return value;
+        }
+    }
+
+    @Override
+    public void test() {
+        try (IncrementalSorter sorter = new IncrementalSorter(2)) {
+            sorter.add(new int[] { 12, 11, 13 });
+            sorter.add(new int[] { 5, 6 });
+            sorter.add(new int[] { 7, 1, 9 });
+            ArrayHelper.print(sorter.toSortedArray());
+        }
+    }
+
+}
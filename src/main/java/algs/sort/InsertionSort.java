@@ -3,29 +3,90 @@ package algs.sort;
 import algs.shared.util.ArrayHelper;
 import algs.shared.util.Testable;
 
+import java.util.Comparator;
+
 /**
  * Best: O(n) Average, Worst: O(n2)
  */
-public class InsertionSort implements Testable {
+public class InsertionSort implements Sorter, Testable {
 
     /**
      * Function to algs.sort array using insertion algs.sort
      */
-   private void sort(int[] arr) {
-        int n = arr.length;
+    @Override
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    @Override
+    public void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
 
-        for (int i = 1 ; i < n ; i++) {
+    @Override
+    public void sort(double[] arr) {
+        int end = Doubles.moveNaNsToEnd(arr);
+        sort(arr, 0, end);
+        Doubles.orderZeros(arr, 0, end);
+    }
+
+    @Override
+    public <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, 0, arr.length, comparator);
+    }
+
+    /**
+     * Sorts arr[lo..hi)
+     */
+    void sort(int[] arr, int lo, int hi) {
+        for (int i = lo + 1 ; i < hi ; i++) {
             int value = arr[i];
             int j = i - 1;
 
-            // Move elements of arr[0..i-1], that are
+            // Move elements of arr[lo..i-1], that are
             // greater than value, to one position ahead
             // of their current position
-            while (j >= 0 && arr[j] > value) {
+            while (j >= lo && arr[j] > value) {
+                arr[j + 1] = arr[j];
+                j -= 1;
+            }
+
+            arr[j + 1] = value;
+        }
+    }
+
+    void sort(long[] arr, int lo, int hi) {
+        for (int i = lo + 1 ; i < hi ; i++) {
+            long value = arr[i];
+            int j = i - 1;
+            while (j >= lo && arr[j] > value) {
                 arr[j + 1] = arr[j];
                 j -= 1;
             }
+            arr[j + 1] = value;
+        }
+    }
 
+    void sort(double[] arr, int lo, int hi) {
+        for (int i = lo + 1 ; i < hi ; i++) {
+            double value = arr[i];
+            int j = i - 1;
+            while (j >= lo && arr[j] > value) {
+                arr[j + 1] = arr[j];
+                j -= 1;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    <T> void sort(T[] arr, int lo, int hi, Comparator<? super T> comparator) {
+        for (int i = lo + 1 ; i < hi ; i++) {
+            T value = arr[i];
+            int j = i - 1;
+            while (j >= lo && comparator.compare(arr[j], value) > 0) {
+                arr[j + 1] = arr[j];
+                j -= 1;
+            }
             arr[j + 1] = value;
         }
     }
@@ -0,0 +1,338 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+import java.util.Comparator;
+
+/**
+ * Best, Average, Worst: O(n log n)
+ *
+ * QuickSort with three safety nets:
+ * - the pivot is the median of three (or the ninther on large ranges),
+ *   so sorted and reversed input split evenly;
+ * - once the recursion is deeper than 2 log n the range is finished
+ *   with HeapSort, which bounds the worst case to O(n log n);
+ * - ranges of INSERTION_SORT_CUTOFF elements or fewer are finished
+ *   with InsertionSort.
+ * Only the smaller side of each partition is recursed into, so the
+ * stack never grows past log n frames.
+ */
+public class IntroSort implements Sorter, Testable {
+
+    static final int INSERTION_SORT_CUTOFF = 16;
+    static final int NINTHER_CUTOFF = 128;
+
+    private final HeapSort heapSort = new HeapSort();
+    private final InsertionSort insertionSort = new InsertionSort();
+
+    @Override
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    @Override
+    public void sort(long[] arr) {
+        sort(arr, 0, arr.length, depthLimit(arr.length));
+    }
+
+    @Override
+    public void sort(double[] arr) {
+        int end = Doubles.moveNaNsToEnd(arr);
+        sort(arr, 0, end, depthLimit(end));
+        Doubles.orderZeros(arr, 0, end);
+    }
+
+    @Override
+    public <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, 0, arr.length, depthLimit(arr.length), comparator);
+    }
+
+    /**
+     * Sorts arr[lo..hi)
+     */
+    void sort(int[] arr, int lo, int hi) {
+        sort(arr, lo, hi, depthLimit(hi - lo));
+    }
+
+    void sort(long[] arr, int lo, int hi) {
+        sort(arr, lo, hi, depthLimit(hi - lo));
+    }
+
+    // 2 * floor(log2 n)
+    static int depthLimit(int n) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(n, 1)));
+    }
+
+    private void sort(int[] arr, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_SORT_CUTOFF) {
+            // Too many bad pivots: give up on quicksort for this range
+            if (depth == 0) {
+                heapSort.sort(arr, lo, hi);
+                return;
+            }
+            depth--;
+
+            int p = partition(arr, lo, hi - 1);
+
+            // Recurse into the smaller side, loop on the larger one
+            if (p - lo < hi - p) {
+                sort(arr, lo, p, depth);
+                lo = p + 1;
+            } else {
+                sort(arr, p + 1, hi, depth);
+                hi = p;
+            }
+        }
+        insertionSort.sort(arr, lo, hi);
+    }
+
+    /**
+     * Hoare-style partition of arr[lo..hi] around a sampled pivot.
+     * Both scans stop on keys equal to the pivot, so runs of duplicates
+     * are split in the middle instead of all landing on one side.
+     * Returns the final index of the pivot.
+     */
+    private int partition(int[] arr, int lo, int hi) {
+        swap(arr, lo, choosePivot(arr, lo, hi));
+        int pivot = arr[lo];
+
+        int i = lo, j = hi + 1;
+        while (true) {
+            while (arr[++i] < pivot)
+                if (i == hi) break;
+            while (pivot < arr[--j])
+                if (j == lo) break;
+            if (i >= j) break;
+            swap(arr, i, j);
+        }
+
+        // Put the pivot between the two sides
+        swap(arr, lo, j);
+        return j;
+    }
+
+    /**
+     * Index of the median of three samples, or on large ranges the
+     * median of the medians of three groups of three (Tukey's ninther)
+     */
+    static int choosePivot(int[] arr, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        if (hi - lo + 1 <= NINTHER_CUTOFF)
+            return median3(arr, lo, mid, hi);
+
+        int eps = (hi - lo + 1) / 8;
+        int m1 = median3(arr, lo, lo + eps, lo + eps + eps);
+        int m2 = median3(arr, mid - eps, mid, mid + eps);
+        int m3 = median3(arr, hi - eps - eps, hi - eps, hi);
+        return median3(arr, m1, m2, m3);
+    }
+
+    // Index of the median of arr[i], arr[j] and arr[k]
+    static int median3(int[] arr, int i, int j, int k) {
+        return arr[i] < arr[j]
+                ? (arr[j] < arr[k] ? j : arr[i] < arr[k] ? k : i)
+                : (arr[k] < arr[j] ? j : arr[k] < arr[i] ? k : i);
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    private void sort(long[] arr, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_SORT_CUTOFF) {
+            if (depth == 0) {
+                heapSort.sort(arr, lo, hi);
+                return;
+            }
+            depth--;
+
+            int p = partition(arr, lo, hi - 1);
+            if (p - lo < hi - p) {
+                sort(arr, lo, p, depth);
+                lo = p + 1;
+            } else {
+                sort(arr, p + 1, hi, depth);
+                hi = p;
+            }
+        }
+        insertionSort.sort(arr, lo, hi);
+    }
+
+    private int partition(long[] arr, int lo, int hi) {
+        swap(arr, lo, choosePivot(arr, lo, hi));
+        long pivot = arr[lo];
+
+        int i = lo, j = hi + 1;
+        while (true) {
+            while (arr[++i] < pivot)
+                if (i == hi) break;
+            while (pivot < arr[--j])
+                if (j == lo) break;
+            if (i >= j) break;
+            swap(arr, i, j);
+        }
+
+        swap(arr, lo, j);
+        return j;
+    }
+
+    static int choosePivot(long[] arr, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        if (hi - lo + 1 <= NINTHER_CUTOFF)
+            return median3(arr, lo, mid, hi);
+
+        int eps = (hi - lo + 1) / 8;
+        int m1 = median3(arr, lo, lo + eps, lo + eps + eps);
+        int m2 = median3(arr, mid - eps, mid, mid + eps);
+        int m3 = median3(arr, hi - eps - eps, hi - eps, hi);
+        return median3(arr, m1, m2, m3);
+    }
+
+    static int median3(long[] arr, int i, int j, int k) {
+        return arr[i] < arr[j]
+                ? (arr[j] < arr[k] ? j : arr[i] < arr[k] ? k : i)
+                : (arr[k] < arr[j] ? j : arr[k] < arr[i] ? k : i);
+    }
+
+    private static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    // NaNs have been moved out of the range, so < is a total order here
+    private void sort(double[] arr, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_SORT_CUTOFF) {
+            if (depth == 0) {
+                heapSort.sort(arr, lo, hi);
+                return;
+            }
+            depth--;
+
+            int p = partition(arr, lo, hi - 1);
+            if (p - lo < hi - p) {
+                sort(arr, lo, p, depth);
+                lo = p + 1;
+            } else {
+                sort(arr, p + 1, hi, depth);
+                hi = p;
+            }
+        }
+        insertionSort.sort(arr, lo, hi);
+    }
+
+    private int partition(double[] arr, int lo, int hi) {
+        swap(arr, lo, choosePivot(arr, lo, hi));
+        double pivot = arr[lo];
+
+        int i = lo, j = hi + 1;
+        while (true) {
+            while (arr[++i] < pivot)
+                if (i == hi) break;
+            while (pivot < arr[--j])
+                if (j == lo) break;
+            if (i >= j) break;
+            swap(arr, i, j);
+        }
+
+        swap(arr, lo, j);
+        return j;
+    }
+
+    static int choosePivot(double[] arr, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        if (hi - lo + 1 <= NINTHER_CUTOFF)
+            return median3(arr, lo, mid, hi);
+
+        int eps = (hi - lo + 1) / 8;
+        int m1 = median3(arr, lo, lo + eps, lo + eps + eps);
+        int m2 = median3(arr, mid - eps, mid, mid + eps);
+        int m3 = median3(arr, hi - eps - eps, hi - eps, hi);
+        return median3(arr, m1, m2, m3);
+    }
+
+    static int median3(double[] arr, int i, int j, int k) {
+        return arr[i] < arr[j]
+                ? (arr[j] < arr[k] ? j : arr[i] < arr[k] ? k : i)
+                : (arr[k] < arr[j] ? j : arr[k] < arr[i] ? k : i);
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    private <T> void sort(T[] arr, int lo, int hi, int depth, Comparator<? super T> comparator) {
+        while (hi - lo > INSERTION_SORT_CUTOFF) {
+            if (depth == 0) {
+                heapSort.sort(arr, lo, hi, comparator);
+                return;
+            }
+            depth--;
+
+            int p = partition(arr, lo, hi - 1, comparator);
+            if (p - lo < hi - p) {
+                sort(arr, lo, p, depth, comparator);
+                lo = p + 1;
+            } else {
+                sort(arr, p + 1, hi, depth, comparator);
+                hi = p;
+            }
+        }
+        insertionSort.sort(arr, lo, hi, comparator);
+    }
+
+    private <T> int partition(T[] arr, int lo, int hi, Comparator<? super T> comparator) {
+        swap(arr, lo, choosePivot(arr, lo, hi, comparator));
+        T pivot = arr[lo];
+
+        int i = lo, j = hi + 1;
+        while (true) {
+            while (comparator.compare(arr[++i], pivot) < 0)
+                if (i == hi) break;
+            while (comparator.compare(pivot, arr[--j]) < 0)
+                if (j == lo) break;
+            if (i >= j) break;
+            swap(arr, i, j);
+        }
+
+        swap(arr, lo, j);
+        return j;
+    }
+
+    static <T> int choosePivot(T[] arr, int lo, int hi, Comparator<? super T> comparator) {
+        int mid = (lo + hi) >>> 1;
+        if (hi - lo + 1 <= NINTHER_CUTOFF)
+            return median3(arr, lo, mid, hi, comparator);
+
+        int eps = (hi - lo + 1) / 8;
+        int m1 = median3(arr, lo, lo + eps, lo + eps + eps, comparator);
+        int m2 = median3(arr, mid - eps, mid, mid + eps, comparator);
+        int m3 = median3(arr, hi - eps - eps, hi - eps, hi, comparator);
+        return median3(arr, m1, m2, m3, comparator);
+    }
+
+    static <T> int median3(T[] arr, int i, int j, int k, Comparator<? super T> c) {
+        return c.compare(arr[i], arr[j]) < 0
+                ? (c.compare(arr[j], arr[k]) < 0 ? j : c.compare(arr[i], arr[k]) < 0 ? k : i)
+                : (c.compare(arr[k], arr[j]) < 0 ? j : c.compare(arr[k], arr[i]) < 0 ? k : i);
+    }
+
+    private static <T> void swap(T[] arr, int i, int j) {
+        T temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, 11, 13, 5, 6 };
+        sort(arr);
+        ArrayHelper.print(arr);
+    }
+
+}
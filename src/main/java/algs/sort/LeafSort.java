@@ -0,0 +1,12 @@
+package algs.sort;
+
+/**
+ * Sorter used by QuickSort and MergeSort for int[] ranges of at most
+ * IntroSort.INSERTION_SORT_CUTOFF elements
+ */
+public enum LeafSort {
+    // Few comparisons, but one mispredicted branch per element on random input
+    INSERTION_SORT,
+    // Fixed branch-free compare-exchange sequence; not stable
+    SORTING_NETWORK
+}
@@ -0,0 +1,149 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+/**
+ * Best, Average, Worst: O(w n) where w is the key size in bytes
+ *
+ * Least-significant-digit radix sort on 8-bit digits. One pass over the
+ * input builds the histograms of every digit at once; then each digit is
+ * scattered in a stable counting pass. Passes alternate between the array
+ * and a single scratch array, and a digit that is the same for every key
+ * is skipped.
+ *
+ * The most significant digit has its sign bit flipped so negative keys
+ * sort before positive ones.
+ */
+public class LsdRadixSort implements Testable {
+
+    static final int BITS = 8;
+    static final int R = 1 << BITS;
+    static final int MASK = R - 1;
+
+    public void sort(int[] arr) {
+        sort(arr, new int[arr.length]);
+    }
+
+    /**
+     * Sorts arr using the caller's scratch array, which must be
+     * at least as long as arr
+     */
+    public void sort(int[] arr, int[] scratch) {
+        int n = arr.length;
+        if (scratch.length < n)
+            throw new IllegalArgumentException("scratch buffer too small: " + scratch.length + " < " + n);
+
+        int digits = Integer.BYTES;
+        int[][] count = new int[digits][R + 1];
+
+        // Histogram of every digit in a single pass
+        for (int value : arr)
+            for (int d = 0; d < digits; d++)
+                count[d][digit(value, d, digits) + 1]++;
+
+        int[] src = arr, dst = scratch;
+        for (int d = 0; d < digits; d++) {
+            int[] c = count[d];
+
+            // Every key has the same digit here: nothing to move
+            if (skip(c, n)) continue;
+
+            // Compute start index of each bucket
+            for (int r = 0; r < R; r++)
+                c[r + 1] += c[r];
+
+            // Distribute
+            int shift = BITS * d;
+            int flip = flip(d, digits);
+            for (int i = 0; i < n; i++) {
+                int value = src[i];
+                dst[c[((value >>> shift) & MASK) ^ flip]++] = value;
+            }
+
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+
+        // Odd number of passes: the result is in scratch
+        if (src != arr) System.arraycopy(src, 0, arr, 0, n);
+    }
+
+    public void sort(long[] arr) {
+        sort(arr, new long[arr.length]);
+    }
+
+    /**
+     * Sorts arr using the caller's scratch array, which must be
+     * at least as long as arr
+     */
+    public void sort(long[] arr, long[] scratch) {
+        int n = arr.length;
+        if (scratch.length < n)
+            throw new IllegalArgumentException("scratch buffer too small: " + scratch.length + " < " + n);
+
+        int digits = Long.BYTES;
+        int[][] count = new int[digits][R + 1];
+
+        for (long value : arr)
+            for (int d = 0; d < digits; d++)
+                count[d][digit(value, d, digits) + 1]++;
+
+        long[] src = arr, dst = scratch;
+        for (int d = 0; d < digits; d++) {
+            int[] c = count[d];
+            if (skip(c, n)) continue;
+
+            for (int r = 0; r < R; r++)
+                c[r + 1] += c[r];
+
+            int shift = BITS * d;
+            int flip = flip(d, digits);
+            for (int i = 0; i < n; i++) {
+                long value = src[i];
+                dst[c[((int) (value >>> shift) & MASK) ^ flip]++] = value;
+            }
+
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+
+        if (src != arr) System.arraycopy(src, 0, arr, 0, n);
+    }
+
+    // d-th byte from the right, with the sign bit flipped on the last one
+    private static int digit(int value, int d, int digits) {
+        return ((value >>> (BITS * d)) & MASK) ^ flip(d, digits);
+    }
+
+    private static int digit(long value, int d, int digits) {
+        return ((int) (value >>> (BITS * d)) & MASK) ^ flip(d, digits);
+    }
+
+    static int flip(int d, int digits) {
+        return d == digits - 1 ? 0x80 : 0;
+    }
+
+    // count[r + 1] holds the frequency of digit r
+    private static boolean skip(int[] count, int n) {
+        for (int r = 1; r <= R; r++) {
+            if (count[r] == n) return true;
+            if (count[r] != 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, -11, 13, 5, -6 };
+        sort(arr);
+        ArrayHelper.print(arr);
+
+        long[] longs = { 12L << 40, -11, 13, 5L << 33, -6L << 50 };
+        sort(longs);
+        ArrayHelper.print(longs);
+    }
+
+}
@@ -3,10 +3,279 @@ package algs.sort;
 import algs.shared.util.ArrayHelper;
 import algs.shared.util.Testable;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 /**
  * Best, Average, Worst: O(n log n)
  */
-public class MergeSort implements Testable {
+public class MergeSort implements Sorter, Testable {
+
+    public enum Mode {
+        // Textbook version: allocates two temp arrays on every merge.
+        // Only int[] has it; the other key types always use BUFFERED.
+        CLASSIC,
+        // One auxiliary buffer of size n, levels alternate between it and the array
+        BUFFERED,
+        // Stable in-place merging with a sqrt(n) buffer (InPlaceMergeSort).
+        // Slower than BUFFERED, but the extra memory is O(sqrt n) instead of O(n).
+        IN_PLACE
+    }
+
+    private final Mode mode;
+    private final LeafSort leaf;
+    private final InsertionSort insertionSort = new InsertionSort();
+    private final InPlaceMergeSort inPlace = new InPlaceMergeSort();
+
+    public MergeSort() {
+        this(Mode.BUFFERED);
+    }
+
+    public MergeSort(Mode mode) {
+        this(mode, LeafSort.INSERTION_SORT);
+    }
+
+    /**
+     * @param leaf sorter for int[] ranges of at most
+     *             IntroSort.INSERTION_SORT_CUTOFF elements in BUFFERED mode
+     */
+    public MergeSort(Mode mode, LeafSort leaf) {
+        this.mode = mode;
+        this.leaf = leaf;
+    }
+
+    @Override
+    public void sort(int[] arr) {
+        switch (mode) {
+            case CLASSIC:
+                sort(arr, 0, arr.length - 1);
+                break;
+            case BUFFERED:
+                sort(arr, new int[arr.length]);
+                break;
+            case IN_PLACE:
+                inPlace.sort(arr);
+                break;
+        }
+    }
+
+    /**
+     * Sorts arr using the caller's scratch buffer, which must be at least
+     * as long as arr. Nothing is allocated, so a buffer kept by the caller
+     * can be reused across sorts.
+     */
+    public void sort(int[] arr, int[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("scratch buffer too small: " + scratch.length + " < " + arr.length);
+        sort(arr, scratch, 0, arr.length);
+    }
+
+    /**
+     * Sorts arr and removes duplicates in the same pass: both halves are
+     * sorted into scratch, and the final merge back into arr drops every
+     * key equal to the one written before it. The distinct keys end up in
+     * arr[0..m), in ascending order, and m is returned; arr[m..n) is left
+     * with stale values.
+     */
+    public int sortUnique(int[] arr, int[] scratch) {
+        int n = arr.length;
+        if (scratch.length < n)
+            throw new IllegalArgumentException("scratch buffer too small: " + scratch.length + " < " + n);
+        if (n < 2) return n;
+
+        int mid = n >>> 1;
+        System.arraycopy(arr, 0, scratch, 0, n);
+        sortInto(arr, scratch, 0, mid);
+        sortInto(arr, scratch, mid, n);
+        return mergeUnique(scratch, arr, mid, n);
+    }
+
+    /**
+     * The distinct keys of arr in ascending order, in an array of exactly
+     * that length: arr itself when it had no duplicates, else a copy of
+     * its prefix. arr is reordered either way.
+     */
+    public int[] sortUnique(int[] arr) {
+        int m = sortUnique(arr, new int[arr.length]);
+        return m == arr.length ? arr : Arrays.copyOf(arr, m);
+    }
+
+    /**
+     * Merges src[0..mid) and src[mid..hi) into dst[0..m), keeping one
+     * copy of each key, and returns m
+     */
+    private static int mergeUnique(int[] src, int[] dst, int mid, int hi) {
+        int i = 0, j = mid, k = 0;
+        int last = src[j] < src[i] ? src[j++] : src[i++];
+        dst[k++] = last;
+        while (i < mid && j < hi) {
+            int value = src[j] < src[i] ? src[j++] : src[i++];
+            if (value != last) dst[k++] = last = value;
+        }
+        while (i < mid) {
+            int value = src[i++];
+            if (value != last) dst[k++] = last = value;
+        }
+        while (j < hi) {
+            int value = src[j++];
+            if (value != last) dst[k++] = last = value;
+        }
+        return k;
+    }
+
+    /**
+     * Sorts arr[lo..hi) using scratch[lo..hi) as the auxiliary buffer
+     */
+    void sort(int[] arr, int[] scratch, int lo, int hi) {
+        // Copy once; from here on every level merges from one
+        // array into the other and nothing is copied back
+        System.arraycopy(arr, lo, scratch, lo, hi - lo);
+        sortInto(scratch, arr, lo, hi);
+    }
+
+    /**
+     * Sorts the values of src[lo..hi) into dst[lo..hi).
+     * Both arrays hold the same values in that range on entry.
+     */
+    private void sortInto(int[] src, int[] dst, int lo, int hi) {
+        // Small range: sort dst in place, src is left as it was
+        if (hi - lo <= IntroSort.INSERTION_SORT_CUTOFF) {
+            if (leaf == LeafSort.SORTING_NETWORK) SortingNetwork.sort(dst, lo, hi);
+            else insertionSort.sort(dst, lo, hi);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+
+        // Sort both halves into src, then merge them into dst
+        sortInto(dst, src, lo, mid);
+        sortInto(dst, src, mid, hi);
+
+        // Halves already in order, no need to merge
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+
+        merge(src, dst, lo, mid, hi);
+    }
+
+    /**
+     * Merges src[lo..mid) and src[mid..hi) into dst[lo..hi)
+     */
+    private void merge(int[] src, int[] dst, int lo, int mid, int hi) {
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (i == mid) dst[k] = src[j++];
+            else if (j == hi) dst[k] = src[i++];
+            else if (src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    @Override
+    public void sort(long[] arr) {
+        if (mode == Mode.IN_PLACE) inPlace.sort(arr);
+        else sort(arr, new long[arr.length]);
+    }
+
+    public void sort(long[] arr, long[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("scratch buffer too small: " + scratch.length + " < " + arr.length);
+        System.arraycopy(arr, 0, scratch, 0, arr.length);
+        sortInto(scratch, arr, 0, arr.length);
+    }
+
+    private void sortInto(long[] src, long[] dst, int lo, int hi) {
+        if (hi - lo < 2) return;
+
+        int mid = (lo + hi) >>> 1;
+        sortInto(dst, src, lo, mid);
+        sortInto(dst, src, mid, hi);
+
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (i == mid) dst[k] = src[j++];
+            else if (j == hi) dst[k] = src[i++];
+            else if (src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    @Override
+    public void sort(double[] arr) {
+        if (mode == Mode.IN_PLACE) inPlace.sort(arr);
+        else sort(arr, new double[arr.length]);
+    }
+
+    public void sort(double[] arr, double[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("scratch buffer too small: " + scratch.length + " < " + arr.length);
+        int end = Doubles.moveNaNsToEnd(arr);
+        System.arraycopy(arr, 0, scratch, 0, end);
+        sortInto(scratch, arr, 0, end);
+        Doubles.orderZeros(arr, 0, end);
+    }
+
+    private void sortInto(double[] src, double[] dst, int lo, int hi) {
+        if (hi - lo < 2) return;
+
+        int mid = (lo + hi) >>> 1;
+        sortInto(dst, src, lo, mid);
+        sortInto(dst, src, mid, hi);
+
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (i == mid) dst[k] = src[j++];
+            else if (j == hi) dst[k] = src[i++];
+            else if (src[j] < src[i]) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
+
+    /**
+     * Stable: equal elements keep their original order
+     */
+    @Override
+    public <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        if (mode == Mode.IN_PLACE) {
+            inPlace.sort(arr, comparator);
+            return;
+        }
+        T[] scratch = arr.clone();
+        sortInto(scratch, arr, 0, arr.length, comparator);
+    }
+
+    private <T> void sortInto(T[] src, T[] dst, int lo, int hi, Comparator<? super T> comparator) {
+        if (hi - lo < 2) return;
+
+        int mid = (lo + hi) >>> 1;
+        sortInto(dst, src, lo, mid, comparator);
+        sortInto(dst, src, mid, hi, comparator);
+
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (i == mid) dst[k] = src[j++];
+            else if (j == hi) dst[k] = src[i++];
+            else if (comparator.compare(src[j], src[i]) < 0) dst[k] = src[j++];
+            else dst[k] = src[i++];
+        }
+    }
 
     /**
      * algs.Main function that sorts arr[l..r] using
@@ -85,9 +354,7 @@ public class MergeSort implements Testable {
     public void test() {
         int[] arr = { 12, 11, 13, 5, 6 };
 
-        int n = arr.length;
-        sort(arr, 0, n - 1);
-
+        sort(arr);
         ArrayHelper.print(arr);
     }
 
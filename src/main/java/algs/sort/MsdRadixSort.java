@@ -0,0 +1,105 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+/**
+ * Average: O(n log_R n), Worst: O(n w) where w is the string length
+ *
+ * Most-significant-digit radix sort for strings. Each UTF-16 char is
+ * read as two 8-bit digits, high byte first, so the order matches
+ * String.compareTo for any text. Buckets smaller than the cutoff are
+ * finished with insertion sort, which beats a full counting pass on a
+ * 256-entry histogram. All passes share one auxiliary array.
+ */
+public class MsdRadixSort implements Testable {
+
+    private static final int R = 256;
+    private static final int CUTOFF = 15;
+
+    public void sort(String[] arr) {
+        sort(arr, new String[arr.length]);
+    }
+
+    /**
+     * Sorts arr using the caller's scratch array, which must be
+     * at least as long as arr
+     */
+    public void sort(String[] arr, String[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("scratch buffer too small: " + scratch.length + " < " + arr.length);
+        sort(arr, scratch, 0, arr.length - 1, 0);
+    }
+
+    /**
+     * Sorts arr[lo..hi] on digits d and beyond. All strings in the
+     * range share their first d digits.
+     */
+    private void sort(String[] arr, String[] aux, int lo, int hi, int d) {
+        if (hi <= lo + CUTOFF) {
+            insertionSort(arr, lo, hi, d);
+            return;
+        }
+
+        // count[r + 2] holds the frequency of digit r; digit -1
+        // (end of string) goes to count[1]
+        int[] count = new int[R + 2];
+        for (int i = lo; i <= hi; i++)
+            count[digit(arr[i], d) + 2]++;
+
+        // Compute start index of each bucket
+        for (int r = 0; r < R + 1; r++)
+            count[r + 1] += count[r];
+
+        // Distribute
+        for (int i = lo; i <= hi; i++)
+            aux[count[digit(arr[i], d) + 1]++] = arr[i];
+
+        // Copy back
+        System.arraycopy(aux, 0, arr, lo, hi - lo + 1);
+
+        // Recursively sort each bucket; strings that ended
+        // at digit d (bucket -1) are already in place
+        for (int r = 0; r < R; r++)
+            sort(arr, aux, lo + count[r], lo + count[r + 1] - 1, d + 1);
+    }
+
+    // d-th byte of s, or -1 past the end
+    private static int digit(String s, int d) {
+        int i = d >> 1;
+        if (i >= s.length()) return -1;
+        char c = s.charAt(i);
+        return (d & 1) == 0 ? c >>> 8 : c & 0xFF;
+    }
+
+    // Insertion sort of arr[lo..hi] comparing from digit d
+    private static void insertionSort(String[] arr, int lo, int hi, int d) {
+        for (int i = lo + 1; i <= hi; i++) {
+            String value = arr[i];
+            int j = i - 1;
+            while (j >= lo && less(value, arr[j], d >> 1)) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    // Is v < w, given that they are equal before char index from
+    private static boolean less(String v, String w, int from) {
+        int n = Math.min(v.length(), w.length());
+        for (int i = from; i < n; i++) {
+            char a = v.charAt(i), b = w.charAt(i);
+            if (a != b) return a < b;
+        }
+        return v.length() < w.length();
+    }
+
+    @Override
+    public void test() {
+        String[] arr = { "she", "sells", "seashells", "by", "the", "sea", "shore" };
+        sort(arr);
+        ArrayHelper.print(arr);
+    }
+
+}
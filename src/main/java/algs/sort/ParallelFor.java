@@ -0,0 +1,44 @@
+package algs.sort;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs body(0) .. body(count - 1) on a ForkJoinPool and waits for all of
+ * them. The index range is halved recursively, so idle workers steal the
+ * larger halves first.
+ */
+final class ParallelFor {
+
+    private ParallelFor() { }
+
+    static void run(ForkJoinPool pool, int count, IntConsumer body) {
+        if (count == 1) body.accept(0);
+        else if (count > 1) pool.invoke(new Task(0, count, body));
+    }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo, hi;
+        private final IntConsumer body;
+
+        Task(int lo, int hi, IntConsumer body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Task(lo, mid, body), new Task(mid, hi, body));
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static algs.sort.LsdRadixSort.*;
+
+/**
+ * Best, Average, Worst: O(w n) work, O(w n / p) time on p threads
+ *
+ * LsdRadixSort with every pass split across threads. The array is cut
+ * into one block per thread, and each 8-bit digit takes two parallel steps:
+ * 1. every block counts its own digit histogram;
+ * 2. digit-major prefix sums over (digit, block) give every block its own
+ *    write position for every digit, and the blocks scatter in parallel.
+ * Blocks are scattered in array order within each digit, so every pass
+ * stays stable, as LSD radix sort needs.
+ *
+ * The per-block histograms have to be rebuilt on each pass because the
+ * key order changes, unlike the sequential sort, which counts all digits
+ * up front. A digit that is the same for every key is still skipped.
+ */
+public class ParallelLsdRadixSort implements Testable {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+    private final LsdRadixSort sequential = new LsdRadixSort();
+
+    public ParallelLsdRadixSort() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public ParallelLsdRadixSort(int threshold) {
+        this(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param threshold arrays shorter than this are sorted sequentially,
+     *                  and blocks are not made smaller than this
+     * @param pool      pool that runs the blocks
+     */
+    public ParallelLsdRadixSort(int threshold, ForkJoinPool pool) {
+        if (threshold < 2) throw new IllegalArgumentException("threshold must be at least 2: " + threshold);
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    public void sort(int[] arr) {
+        sort(arr, new int[arr.length]);
+    }
+
+    /**
+     * Sorts arr using the caller's scratch array, which must be
+     * at least as long as arr
+     */
+    public void sort(int[] arr, int[] scratch) {
+        int n = arr.length;
+        if (scratch.length < n)
+            throw new IllegalArgumentException("scratch buffer too small: " + scratch.length + " < " + n);
+
+        int blocks = Math.min(pool.getParallelism(), n / threshold);
+        if (blocks < 2) {
+            sequential.sort(arr, scratch);
+            return;
+        }
+
+        int blockSize = (n + blocks - 1) / blocks;
+        int[][] count = new int[blocks][R];
+        int digits = Integer.BYTES;
+
+        int[] src = arr, dst = scratch;
+        for (int d = 0; d < digits; d++) {
+            int shift = BITS * d;
+            int flip = flip(d, digits);
+            int[] from = src, to = dst;
+
+            // Per-block histograms
+            ParallelFor.run(pool, blocks, b -> {
+                int[] c = count[b];
+                Arrays.fill(c, 0);
+                int hi = Math.min(n, (b + 1) * blockSize);
+                for (int i = b * blockSize; i < hi; i++)
+                    c[((from[i] >>> shift) & MASK) ^ flip]++;
+            });
+
+            // Digit-major prefix sums: count[b][r] becomes the position where
+            // block b writes its first key with digit r
+            boolean uniform = false;
+            int sum = 0;
+            for (int r = 0; r < R; r++) {
+                int start = sum;
+                for (int b = 0; b < blocks; b++) {
+                    int c = count[b][r];
+                    count[b][r] = sum;
+                    sum += c;
+                }
+                // Every key has the same digit here: nothing to move
+                if (sum - start == n) {
+                    uniform = true;
+                    break;
+                }
+            }
+            if (uniform) continue;
+
+            // Distribute
+            ParallelFor.run(pool, blocks, b -> {
+                int[] next = count[b];
+                int hi = Math.min(n, (b + 1) * blockSize);
+                for (int i = b * blockSize; i < hi; i++) {
+                    int value = from[i];
+                    to[next[((value >>> shift) & MASK) ^ flip]++] = value;
+                }
+            });
+
+            src = to;
+            dst = from;
+        }
+
+        // Odd number of passes: the result is in scratch
+        if (src != arr) {
+            int[] result = src;
+            ParallelFor.run(pool, blocks, b -> {
+                int lo = Math.min(n, b * blockSize);
+                System.arraycopy(result, lo, arr, lo, Math.min(n, lo + blockSize) - lo);
+            });
+        }
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, -11, 13, 5, -6 };
+        sort(arr);
+        ArrayHelper.print(arr);
+    }
+
+}
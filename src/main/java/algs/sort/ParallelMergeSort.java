@@ -0,0 +1,161 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Best, Average, Worst: O(n log n) work, O(log3 n) span
+ *
+ * Merge sort on a ForkJoinPool. Both the recursive halving and the merge
+ * step are split into tasks until a range is smaller than the threshold,
+ * then the sequential MergeSort takes over.
+ */
+public class ParallelMergeSort implements Testable {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+    private final MergeSort sequential = new MergeSort();
+
+    public ParallelMergeSort() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public ParallelMergeSort(int threshold) {
+        this(threshold, ForkJoinPool.commonPool());
+    }
+
+    public ParallelMergeSort(int threshold, ForkJoinPool pool) {
+        if (threshold < 2) throw new IllegalArgumentException("threshold must be at least 2: " + threshold);
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    public void sort(int[] arr) {
+        if (arr.length < threshold) {
+            sequential.sort(arr);
+            return;
+        }
+        int[] aux = new int[arr.length];
+        pool.invoke(new SortTask(arr, aux, 0, arr.length, false));
+    }
+
+    /**
+     * Sorts arr[lo..hi) and leaves the result in arr when toAux is false,
+     * or in aux when it is true. The children write into the other array,
+     * so each level merges from one array into the other without copying back.
+     */
+    private class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr, aux;
+        private final int lo, hi;
+        private final boolean toAux;
+
+        SortTask(int[] arr, int[] aux, int lo, int hi, boolean toAux) {
+            this.arr = arr;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+            this.toAux = toAux;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < threshold) {
+                sequential.sort(arr, aux, lo, hi);
+                if (toAux) System.arraycopy(arr, lo, aux, lo, hi - lo);
+                return;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(arr, aux, lo, mid, !toAux),
+                      new SortTask(arr, aux, mid, hi, !toAux));
+
+            int[] src = toAux ? arr : aux;
+            int[] dst = toAux ? aux : arr;
+            new MergeTask(src, lo, mid, mid, hi, dst, lo).compute();
+        }
+    }
+
+    /**
+     * Merges src[lo1..hi1) and src[lo2..hi2) into dst starting at dstLo.
+     * The larger run is split at its middle element and the other run at
+     * the matching position (found by binary search), so both halves
+     * can be merged in parallel.
+     */
+    private class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dst;
+        private final int lo1, hi1, lo2, hi2, dstLo;
+
+        MergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int dstLo) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.dstLo = dstLo;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 < threshold) {
+                merge(src, lo1, hi1, lo2, hi2, dst, dstLo);
+                return;
+            }
+
+            // Always split the larger run
+            if (n1 < n2) {
+                new MergeTask(src, lo2, hi2, lo1, hi1, dst, dstLo).compute();
+                return;
+            }
+
+            int mid1 = (lo1 + hi1) >>> 1;
+            int mid2 = lowerBound(src, lo2, hi2, src[mid1]);
+            int dstMid = dstLo + (mid1 - lo1) + (mid2 - lo2);
+            dst[dstMid] = src[mid1];
+
+            invokeAll(new MergeTask(src, lo1, mid1, lo2, mid2, dst, dstLo),
+                      new MergeTask(src, mid1 + 1, hi1, mid2, hi2, dst, dstMid + 1));
+        }
+    }
+
+    // First index in arr[lo..hi) whose value is not less than key
+    private static int lowerBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void merge(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int k) {
+        int i = lo1, j = lo2;
+        while (i < hi1 && j < hi2) {
+            if (src[i] <= src[j]) dst[k++] = src[i++];
+            else dst[k++] = src[j++];
+        }
+
+        // Copy remaining elements of whichever run is left
+        while (i < hi1) dst[k++] = src[i++];
+        while (j < hi2) dst[k++] = src[j++];
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, 11, 13, 5, 6 };
+        sort(arr);
+        ArrayHelper.print(arr);
+    }
+
+}
@@ -0,0 +1,164 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.StdRandom;
+import algs.shared.util.Testable;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Average: O(n log n) work, O(n / p log n) time on p threads
+ *
+ * Sample sort on a ForkJoinPool:
+ * 1. k - 1 splitters are taken from a sorted random sample of
+ *    k * OVERSAMPLING keys, which cuts the keys into k buckets of
+ *    roughly equal size;
+ * 2. the array is cut into one block per thread; each block finds the
+ *    bucket of every key by binary search over the splitters and counts
+ *    the keys per bucket;
+ * 3. prefix sums over (bucket, block) give every block its own write
+ *    position inside every bucket, so all blocks scatter their keys into
+ *    the scratch array at the same time without any locking;
+ * 4. the buckets are sorted concurrently with QuickSort and copied back.
+ * Unlike ParallelMergeSort there is one distribution pass instead of
+ * log n merge levels, so the data crosses the memory bus about three times.
+ *
+ * Buckets use 3-way QuickSort, so a key repeated across a whole bucket
+ * is handled in linear time. Very frequent keys still end up in a single
+ * bucket and limit the speedup.
+ */
+public class ParallelSampleSort implements Testable {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    // Buckets per thread, so a slow bucket doesn't hold back the others
+    private static final int BUCKETS_PER_THREAD = 4;
+
+    // Bucket numbers are kept in a byte per key
+    private static final int MAX_BUCKETS = 256;
+
+    // Sample keys per bucket; more samples give more even buckets
+    private static final int OVERSAMPLING = 32;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+    private final QuickSort sequential = new QuickSort(QuickSort.Mode.THREE_WAY);
+
+    public ParallelSampleSort() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public ParallelSampleSort(int threshold) {
+        this(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param threshold arrays shorter than this are sorted sequentially,
+     *                  and buckets are not made smaller than this
+     * @param pool      pool that runs the blocks and the buckets
+     */
+    public ParallelSampleSort(int threshold, ForkJoinPool pool) {
+        if (threshold < 2) throw new IllegalArgumentException("threshold must be at least 2: " + threshold);
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    public void sort(int[] arr) {
+        int n = arr.length;
+        int threads = pool.getParallelism();
+        int buckets = Math.min(MAX_BUCKETS, Math.min(BUCKETS_PER_THREAD * threads, n / threshold));
+        if (buckets < 2) {
+            sequential.sortRange(arr, 0, n);
+            return;
+        }
+
+        int[] splitters = chooseSplitters(arr, buckets);
+        buckets = splitters.length + 1;
+
+        int blocks = threads;
+        int blockSize = (n + blocks - 1) / blocks;
+        byte[] bucketOf = new byte[n];
+        int[][] count = new int[blocks][buckets];
+
+        // Classify every key and count the keys per (block, bucket)
+        ParallelFor.run(pool, blocks, b -> {
+            int[] c = count[b];
+            int hi = Math.min(n, (b + 1) * blockSize);
+            for (int i = b * blockSize; i < hi; i++) {
+                int k = bucket(splitters, arr[i]);
+                bucketOf[i] = (byte) k;
+                c[k]++;
+            }
+        });
+
+        // Bucket-major prefix sums: count[b][k] becomes the position where
+        // block b writes its first key of bucket k
+        int[] bucketStart = new int[buckets + 1];
+        int sum = 0;
+        for (int k = 0; k < buckets; k++) {
+            bucketStart[k] = sum;
+            for (int b = 0; b < blocks; b++) {
+                int c = count[b][k];
+                count[b][k] = sum;
+                sum += c;
+            }
+        }
+        bucketStart[buckets] = n;
+
+        // Scatter: every block owns disjoint ranges of aux
+        int[] aux = new int[n];
+        ParallelFor.run(pool, blocks, b -> {
+            int[] next = count[b];
+            int hi = Math.min(n, (b + 1) * blockSize);
+            for (int i = b * blockSize; i < hi; i++)
+                aux[next[bucketOf[i] & 0xFF]++] = arr[i];
+        });
+
+        // Buckets are independent: sort each one and copy it back
+        ParallelFor.run(pool, buckets, k -> {
+            int lo = bucketStart[k], hi = bucketStart[k + 1];
+            sequential.sortRange(aux, lo, hi);
+            System.arraycopy(aux, lo, arr, lo, hi - lo);
+        });
+    }
+
+    /**
+     * Sorted, distinct splitters taken at every OVERSAMPLING-th position
+     * of a random sample. Duplicates are dropped, so input with few
+     * distinct keys gets fewer buckets.
+     */
+    private int[] chooseSplitters(int[] arr, int buckets) {
+        int[] sample = new int[buckets * OVERSAMPLING];
+        for (int i = 0; i < sample.length; i++)
+            sample[i] = arr[StdRandom.uniform(arr.length)];
+        sequential.sortRange(sample, 0, sample.length);
+
+        int[] splitters = new int[buckets - 1];
+        int m = 0;
+        for (int k = 1; k < buckets; k++) {
+            int s = sample[k * OVERSAMPLING];
+            if (m == 0 || splitters[m - 1] != s) splitters[m++] = s;
+        }
+        return Arrays.copyOf(splitters, m);
+    }
+
+    // Number of splitters <= value: bucket k holds [splitters[k-1], splitters[k])
+    private static int bucket(int[] splitters, int value) {
+        int lo = 0, hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (splitters[mid] <= value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, 11, 13, 5, 6 };
+        sort(arr);
+        ArrayHelper.print(arr);
+    }
+
+}
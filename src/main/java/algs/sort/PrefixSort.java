@@ -0,0 +1,165 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+/**
+ * Average: O(n log n + total distinguishing prefix / 4)
+ *
+ * String sort that compares cached 8-byte key prefixes instead of
+ * calling String.compareTo. Four UTF-16 chars starting at the current
+ * depth are packed into a long, kept in an array parallel to the
+ * strings, and the range is three-way quicksorted on those longs. The
+ * strings whose prefixes tie are then re-keyed on the next four chars
+ * and sorted the same way, so a long shared prefix (URLs, paths) is read
+ * once per string rather than once per comparison.
+ *
+ * Within a tie, a string that ends inside the four chars is a prefix of
+ * every longer one, so the ended strings are moved to the front by
+ * length and only the rest go one level deeper.
+ *
+ * The order matches String.compareTo.
+ */
+public class PrefixSort implements Testable {
+
+    // UTF-16 chars packed into one key
+    static final int CHARS = 4;
+    static final int INSERTION_SORT_CUTOFF = 16;
+
+    public void sort(String[] arr) {
+        sort(arr, new long[arr.length]);
+    }
+
+    /**
+     * Sorts arr using the caller's key array, which must be
+     * at least as long as arr
+     */
+    public void sort(String[] arr, long[] keys) {
+        if (keys.length < arr.length)
+            throw new IllegalArgumentException("key buffer too small: " + keys.length + " < " + arr.length);
+        fillKeys(arr, keys, 0, arr.length, 0);
+        sort(arr, keys, 0, arr.length, 0);
+    }
+
+    /**
+     * Sorts arr[lo..hi), whose keys hold chars depth..depth+CHARS.
+     * All strings in the range share their first depth chars.
+     */
+    private void sort(String[] arr, long[] keys, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_SORT_CUTOFF) {
+            long pivot = medianOfThree(keys[lo], keys[(lo + hi) >>> 1], keys[hi - 1]);
+
+            // Dijkstra's three-way partition:
+            // [lo, lt) < pivot, [lt, i) == pivot, (gt, hi) > pivot
+            int lt = lo, i = lo, gt = hi - 1;
+            while (i <= gt) {
+                if (keys[i] < pivot) swap(arr, keys, lt++, i++);
+                else if (keys[i] > pivot) swap(arr, keys, i, gt--);
+                else i++;
+            }
+
+            sortTies(arr, keys, lt, gt + 1, depth);
+
+            // Recurse into the smaller side, loop on the larger one
+            if (lt - lo < hi - gt - 1) {
+                sort(arr, keys, lo, lt, depth);
+                lo = gt + 1;
+            } else {
+                sort(arr, keys, gt + 1, hi, depth);
+                hi = lt;
+            }
+        }
+        insertionSort(arr, keys, lo, hi, depth);
+    }
+
+    /**
+     * Sorts arr[lo..hi), whose keys at depth are all equal
+     */
+    private void sortTies(String[] arr, long[] keys, int lo, int hi, int depth) {
+        if (hi - lo < 2) return;
+        int next = depth + CHARS;
+
+        // Strings no longer than next are equal up to their length,
+        // so they go first, shortest first
+        for (int length = depth; length <= next; length++) {
+            for (int i = lo; i < hi; i++)
+                if (arr[i].length() == length) swap(arr, keys, lo++, i);
+        }
+
+        fillKeys(arr, keys, lo, hi, next);
+        sort(arr, keys, lo, hi, next);
+    }
+
+    private static void insertionSort(String[] arr, long[] keys, int lo, int hi, int depth) {
+        for (int i = lo + 1; i < hi; i++) {
+            String value = arr[i];
+            long key = keys[i];
+            int j = i - 1;
+            while (j >= lo && less(value, key, arr[j], keys[j], depth)) {
+                arr[j + 1] = arr[j];
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            arr[j + 1] = value;
+            keys[j + 1] = key;
+        }
+    }
+
+    // Is v < w, given their keys at depth; only ties read the strings
+    private static boolean less(String v, long vKey, String w, long wKey, int depth) {
+        if (vKey != wKey) return vKey < wKey;
+        int n = Math.min(v.length(), w.length());
+        for (int i = depth + CHARS; i < n; i++) {
+            char a = v.charAt(i), b = w.charAt(i);
+            if (a != b) return a < b;
+        }
+        return v.length() < w.length();
+    }
+
+    private static void fillKeys(String[] arr, long[] keys, int lo, int hi, int depth) {
+        for (int i = lo; i < hi; i++)
+            keys[i] = key(arr[i], depth);
+    }
+
+    /**
+     * Chars depth..depth+CHARS of s, high char first, zero-padded past
+     * the end. The sign bit is flipped so that signed comparison of keys
+     * orders them as unsigned, i.e. char by char.
+     */
+    static long key(String s, int depth) {
+        int end = Math.min(s.length(), depth + CHARS);
+        long key = 0;
+        for (int i = depth; i < depth + CHARS; i++)
+            key = key << 16 | (i < end ? s.charAt(i) : 0);
+        return key ^ Long.MIN_VALUE;
+    }
+
+    private static long medianOfThree(long a, long b, long c) {
+        if (a < b) {
+            if (b < c) return b;
+            return a < c ? c : a;
+        }
+        if (a < c) return a;
+        return b < c ? c : b;
+    }
+
+    private static void swap(String[] arr, long[] keys, int i, int j) {
+        String s = arr[i];
+        arr[i] = arr[j];
+        arr[j] = s;
+        long k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+    }
+
+    @Override
+    public void test() {
+        String[] arr = {
+                "https://example.com/b", "https://example.com/a", "https://example.com",
+                "she", "sells", "seashells", "by", "the", "sea", "shore", "sea", "a\0", "a"
+        };
+        sort(arr);
+        ArrayHelper.print(arr);
+    }
+
+}
@@ -0,0 +1,110 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+/**
+ * select - Average: O(n), Worst: O(n)
+ * partialSort - Average, Worst: O(n + k log k)
+ *
+ * Introselect: quickselect with 3-way partitioning around a median-of-three
+ * (or ninther) pivot, recursing only into the side that holds rank k.
+ * After 2 log n partitions without finding k, the remaining range switches
+ * to median-of-medians pivots. Each of those is guaranteed to drop at least
+ * 30% of the range, which bounds the worst case to O(n).
+ */
+public class QuickSelect implements Testable {
+
+    // Group size of the median-of-medians pivot
+    private static final int GROUP = 5;
+
+    private final IntroSort introSort = new IntroSort();
+    private final InsertionSort insertionSort = new InsertionSort();
+
+    /**
+     * Rearranges arr so that arr[k] holds the value it would have if arr
+     * were sorted, with no larger value before it and no smaller one after.
+     * Returns arr[k].
+     */
+    public int select(int[] arr, int k) {
+        if (k < 0 || k >= arr.length)
+            throw new IllegalArgumentException("k must be in [0, " + arr.length + "): " + k);
+        select(arr, 0, arr.length - 1, k, IntroSort.depthLimit(arr.length));
+        return arr[k];
+    }
+
+    /**
+     * Rearranges arr so that arr[0..k) holds its k smallest values in
+     * ascending order. The rest of the array is left in no particular order.
+     */
+    public void partialSort(int[] arr, int k) {
+        if (k < 0 || k > arr.length)
+            throw new IllegalArgumentException("k must be in [0, " + arr.length + "]: " + k);
+        if (k == 0) return;
+        if (k < arr.length) select(arr, k - 1);
+        introSort.sort(arr, 0, k);
+    }
+
+    // Narrows arr[lo..hi] down to the part that holds rank k
+    private void select(int[] arr, int lo, int hi, int k, int depth) {
+        while (hi - lo > IntroSort.INSERTION_SORT_CUTOFF) {
+            int p;
+            if (depth > 0) {
+                depth--;
+                p = IntroSort.choosePivot(arr, lo, hi);
+            } else {
+                // Too many bad pivots: pay for a pivot that is never bad
+                p = medianOfMedians(arr, lo, hi);
+            }
+
+            // 3-way partition: arr[lo..lt-1] < pivot == arr[lt..gt] < arr[gt+1..hi]
+            swap(arr, lo, p);
+            int pivot = arr[lo];
+            int lt = lo, gt = hi, i = lo + 1;
+            while (i <= gt) {
+                if (arr[i] < pivot) swap(arr, lt++, i++);
+                else if (arr[i] > pivot) swap(arr, i, gt--);
+                else i++;
+            }
+
+            if (k < lt) hi = lt - 1;
+            else if (k > gt) lo = gt + 1;
+            else return;
+        }
+        insertionSort.sort(arr, lo, hi + 1);
+    }
+
+    /**
+     * Index of a pivot with at least 30% of arr[lo..hi] on either side:
+     * the median of each group of five is moved to the front of the range,
+     * and the median of those medians is found by a recursive select
+     */
+    private int medianOfMedians(int[] arr, int lo, int hi) {
+        int medians = lo;
+        for (int g = lo; g <= hi; g += GROUP) {
+            int end = Math.min(g + GROUP, hi + 1);
+            insertionSort.sort(arr, g, end);
+            swap(arr, medians++, (g + end - 1) >>> 1);
+        }
+        int mid = (lo + medians - 1) >>> 1;
+        select(arr, lo, medians - 1, mid, 0);
+        return mid;
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, 11, 13, 5, 6 };
+        System.out.println(select(arr, 2));
+
+        arr = new int[] { 12, 11, 13, 5, 6 };
+        partialSort(arr, 3);
+        ArrayHelper.print(arr);
+    }
+
+}
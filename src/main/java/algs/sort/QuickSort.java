@@ -3,10 +3,124 @@ package algs.sort;
 import algs.shared.util.ArrayHelper;
 import algs.shared.util.Testable;
 
+import java.util.Comparator;
+
 /**
  * Best, Average: O(n log n), Worst: O(n2)
  */
-public class QuickSort implements Testable {
+public class QuickSort implements Sorter, Testable {
+
+    public enum Mode {
+        // Lomuto partitioning around a median-of-three (or ninther)
+        // pivot moved to the end. When no key is smaller than the pivot,
+        // the keys equal to it are gathered and skipped, so duplicates
+        // do not go quadratic.
+        LOMUTO,
+        // Dijkstra's 3-way partitioning: < pivot, == pivot, > pivot.
+        // Keys equal to the pivot are never looked at again, so input
+        // with k distinct keys takes O(n log k).
+        THREE_WAY,
+        // Yaroslavskiy's dual-pivot partitioning into three parts:
+        // < p, p..q, > q, with p and q the 2nd and 4th of five samples.
+        // When p == q the middle part is all duplicates and is skipped.
+        // The largest part is looped on, so the stack stays within log n.
+        DUAL_PIVOT
+    }
+
+    private final Mode mode;
+    private final LeafSort leaf;
+    private final InsertionSort insertionSort = new InsertionSort();
+
+    public QuickSort() {
+        this(Mode.LOMUTO);
+    }
+
+    public QuickSort(Mode mode) {
+        this(mode, LeafSort.INSERTION_SORT);
+    }
+
+    /**
+     * @param leaf sorter for the small int[] ranges left by THREE_WAY and
+     *             DUAL_PIVOT partitioning; LOMUTO partitions down to one element
+     */
+    public QuickSort(Mode mode, LeafSort leaf) {
+        this.mode = mode;
+        this.leaf = leaf;
+    }
+
+    @Override
+    public void sort(int[] arr) {
+        sortRange(arr, 0, arr.length);
+    }
+
+    @Override
+    public void sort(long[] arr) {
+        int high = arr.length - 1;
+        switch (mode) {
+            case LOMUTO:
+                sort(arr, 0, high);
+                break;
+            case THREE_WAY:
+                threeWaySort(arr, 0, high);
+                break;
+            case DUAL_PIVOT:
+                dualPivotSort(arr, 0, high);
+                break;
+        }
+    }
+
+    @Override
+    public void sort(double[] arr) {
+        // NaNs are moved out first, so < is a total order on the rest
+        int end = Doubles.moveNaNsToEnd(arr);
+        int high = end - 1;
+        switch (mode) {
+            case LOMUTO:
+                sort(arr, 0, high);
+                break;
+            case THREE_WAY:
+                threeWaySort(arr, 0, high);
+                break;
+            case DUAL_PIVOT:
+                dualPivotSort(arr, 0, high);
+                break;
+        }
+        Doubles.orderZeros(arr, 0, end);
+    }
+
+    @Override
+    public <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        int high = arr.length - 1;
+        switch (mode) {
+            case LOMUTO:
+                sort(arr, 0, high, comparator);
+                break;
+            case THREE_WAY:
+                threeWaySort(arr, 0, high, comparator);
+                break;
+            case DUAL_PIVOT:
+                dualPivotSort(arr, 0, high, comparator);
+                break;
+        }
+    }
+
+    /**
+     * Sorts arr[lo..hi) with this sorter's partitioning mode
+     */
+    void sortRange(int[] arr, int lo, int hi) {
+        int high = hi - 1;
+        switch (mode) {
+            case LOMUTO:
+                sort(arr, lo, high);
+                break;
+            case THREE_WAY:
+                threeWaySort(arr, lo, high);
+                break;
+            case DUAL_PIVOT:
+                dualPivotSort(arr, lo, high);
+                break;
+        }
+    }
 
     /**
      * The main function that implements QuickSort
@@ -15,26 +129,38 @@ public class QuickSort implements Testable {
      * high  --> Ending index
      **/
     private void sort(int[] arr, int low, int high) {
-        if (low < high) {
+        while (low < high) {
             // pi is partitioning index, arr[pi] is
             // now at right place
             int pi = partition(arr, low, high);
 
-            // Recursively algs.sort elements before
-            // partition and after partition
-            sort(arr, low, pi-1);
-            sort(arr, pi+1, high);
+            // Nothing was smaller, so the pivot is the minimum of the
+            // range: keys equal to it are in place too
+            if (pi == low) {
+                low = gatherEqual(arr, low, high);
+                continue;
+            }
+
+            // Recurse into the smaller side, loop on the larger one
+            if (pi - low < high - pi) {
+                sort(arr, low, pi - 1);
+                low = pi + 1;
+            } else {
+                sort(arr, pi + 1, high);
+                high = pi - 1;
+            }
         }
     }
 
     /**
-     * This function takes last element as pivot,
+     * This function moves a sampled pivot to the end,
      * places the pivot element at its correct
      * position in sorted array,
      * and places all smaller (smaller than pivot) to left of pivot
      * and all greater elements to right of pivot
      **/
     private int partition(int[] arr, int low, int high) {
+        swap(arr, high, IntroSort.choosePivot(arr, low, high));
         int pivot = arr[high];
         int i = low - 1; // index of smaller element
 
@@ -59,13 +185,502 @@ public class QuickSort implements Testable {
         return i + 1;
     }
 
+    /**
+     * Moves the keys of arr[low+1..high] equal to arr[low], the minimum
+     * of the range, next to it. Returns the index after them.
+     */
+    private static int gatherEqual(int[] arr, int low, int high) {
+        int eq = low;
+        for (int j = low + 1; j <= high; j++)
+            if (arr[j] == arr[low]) swap(arr, ++eq, j);
+        return eq + 1;
+    }
+
+    /**
+     * Sorts arr[low..high] with 3-way partitioning around a
+     * median-of-three (or ninther) pivot:
+     * arr[low..lt-1] < pivot == arr[lt..gt] < arr[gt+1..high]
+     **/
+    private void threeWaySort(int[] arr, int low, int high) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            swap(arr, low, IntroSort.choosePivot(arr, low, high));
+            int pivot = arr[low];
+
+            int lt = low, gt = high, i = low + 1;
+            while (i <= gt) {
+                if (arr[i] < pivot) swap(arr, lt++, i++);
+                else if (arr[i] > pivot) swap(arr, i, gt--);
+                else i++;
+            }
+
+            // Recurse into the smaller side, loop on the larger one
+            if (lt - low < high - gt) {
+                threeWaySort(arr, low, lt - 1);
+                low = gt + 1;
+            } else {
+                threeWaySort(arr, gt + 1, high);
+                high = lt - 1;
+            }
+        }
+        leafSort(arr, low, high + 1);
+    }
+
+    /**
+     * Sorts arr[low..high] with two pivots p <= q, the 2nd and 4th of
+     * five sorted samples:
+     * arr[low..lt-1] < p <= arr[lt+1..gt-1] <= q < arr[gt+1..high]
+     **/
+    private void dualPivotSort(int[] arr, int low, int high) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            // Sort five evenly spaced samples and use the 2nd and 4th as
+            // pivots, moved to the ends
+            int step = (high - low) / 6;
+            int first = ((low + high) >>> 1) - 2 * step;
+            sortSamples(arr, first, step);
+            swap(arr, low, first + step);
+            swap(arr, high, first + 3 * step);
+            int p = arr[low], q = arr[high];
+
+            int lt = low + 1, gt = high - 1, i = low + 1;
+            while (i <= gt) {
+                if (arr[i] < p) {
+                    swap(arr, lt++, i++);
+                } else if (arr[i] > q) {
+                    while (arr[gt] > q && i < gt) gt--;
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            swap(arr, low, --lt);
+            swap(arr, high, ++gt);
+
+            // Loop on the largest part and recurse into the other two,
+            // which are at most half the range each
+            int left = lt - low, right = high - gt;
+            int middle = p < q ? gt - lt - 1 : 0;
+            if (left >= middle && left >= right) {
+                if (middle > 0) dualPivotSort(arr, lt + 1, gt - 1);
+                dualPivotSort(arr, gt + 1, high);
+                high = lt - 1;
+            } else if (right >= middle) {
+                dualPivotSort(arr, low, lt - 1);
+                if (middle > 0) dualPivotSort(arr, lt + 1, gt - 1);
+                low = gt + 1;
+            } else {
+                dualPivotSort(arr, low, lt - 1);
+                dualPivotSort(arr, gt + 1, high);
+                low = lt + 1;
+                high = gt - 1;
+            }
+        }
+        leafSort(arr, low, high + 1);
+    }
+
+    // Insertion sort of the five samples arr[first], arr[first + step],
+    // ..., arr[first + 4 * step]
+    private static void sortSamples(int[] arr, int first, int step) {
+        for (int i = first + step; i <= first + 4 * step; i += step) {
+            int value = arr[i];
+            int j = i - step;
+            while (j >= first && arr[j] > value) {
+                arr[j + step] = arr[j];
+                j -= step;
+            }
+            arr[j + step] = value;
+        }
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    private void leafSort(int[] arr, int lo, int hi) {
+        if (leaf == LeafSort.SORTING_NETWORK) SortingNetwork.sort(arr, lo, hi);
+        else insertionSort.sort(arr, lo, hi);
+    }
+
+    private void sort(long[] arr, int low, int high) {
+        while (low < high) {
+            int pi = partition(arr, low, high);
+            if (pi == low) {
+                low = gatherEqual(arr, low, high);
+                continue;
+            }
+            if (pi - low < high - pi) {
+                sort(arr, low, pi - 1);
+                low = pi + 1;
+            } else {
+                sort(arr, pi + 1, high);
+                high = pi - 1;
+            }
+        }
+    }
+
+    private int partition(long[] arr, int low, int high) {
+        swap(arr, high, IntroSort.choosePivot(arr, low, high));
+        long pivot = arr[high];
+        int i = low - 1;
+        for (int j = low ; j < high ; j++) {
+            if (arr[j] < pivot) swap(arr, ++i, j);
+        }
+        swap(arr, i + 1, high);
+        return i + 1;
+    }
+
+    private static int gatherEqual(long[] arr, int low, int high) {
+        int eq = low;
+        for (int j = low + 1; j <= high; j++)
+            if (arr[j] == arr[low]) swap(arr, ++eq, j);
+        return eq + 1;
+    }
+
+    private void threeWaySort(long[] arr, int low, int high) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            swap(arr, low, IntroSort.choosePivot(arr, low, high));
+            long pivot = arr[low];
+
+            int lt = low, gt = high, i = low + 1;
+            while (i <= gt) {
+                if (arr[i] < pivot) swap(arr, lt++, i++);
+                else if (arr[i] > pivot) swap(arr, i, gt--);
+                else i++;
+            }
+
+            if (lt - low < high - gt) {
+                threeWaySort(arr, low, lt - 1);
+                low = gt + 1;
+            } else {
+                threeWaySort(arr, gt + 1, high);
+                high = lt - 1;
+            }
+        }
+        insertionSort.sort(arr, low, high + 1);
+    }
+
+    private void dualPivotSort(long[] arr, int low, int high) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            // Sort five evenly spaced samples and use the 2nd and 4th as
+            // pivots, moved to the ends
+            int step = (high - low) / 6;
+            int first = ((low + high) >>> 1) - 2 * step;
+            sortSamples(arr, first, step);
+            swap(arr, low, first + step);
+            swap(arr, high, first + 3 * step);
+            long p = arr[low], q = arr[high];
+
+            int lt = low + 1, gt = high - 1, i = low + 1;
+            while (i <= gt) {
+                if (arr[i] < p) {
+                    swap(arr, lt++, i++);
+                } else if (arr[i] > q) {
+                    while (arr[gt] > q && i < gt) gt--;
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            swap(arr, low, --lt);
+            swap(arr, high, ++gt);
+
+            // Loop on the largest part and recurse into the other two,
+            // which are at most half the range each
+            int left = lt - low, right = high - gt;
+            int middle = p < q ? gt - lt - 1 : 0;
+            if (left >= middle && left >= right) {
+                if (middle > 0) dualPivotSort(arr, lt + 1, gt - 1);
+                dualPivotSort(arr, gt + 1, high);
+                high = lt - 1;
+            } else if (right >= middle) {
+                dualPivotSort(arr, low, lt - 1);
+                if (middle > 0) dualPivotSort(arr, lt + 1, gt - 1);
+                low = gt + 1;
+            } else {
+                dualPivotSort(arr, low, lt - 1);
+                dualPivotSort(arr, gt + 1, high);
+                low = lt + 1;
+                high = gt - 1;
+            }
+        }
+        insertionSort.sort(arr, low, high + 1);
+    }
+
+    private static void sortSamples(long[] arr, int first, int step) {
+        for (int i = first + step; i <= first + 4 * step; i += step) {
+            long value = arr[i];
+            int j = i - step;
+            while (j >= first && arr[j] > value) {
+                arr[j + step] = arr[j];
+                j -= step;
+            }
+            arr[j + step] = value;
+        }
+    }
+
+    private static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    private void sort(double[] arr, int low, int high) {
+        while (low < high) {
+            int pi = partition(arr, low, high);
+            if (pi == low) {
+                low = gatherEqual(arr, low, high);
+                continue;
+            }
+            if (pi - low < high - pi) {
+                sort(arr, low, pi - 1);
+                low = pi + 1;
+            } else {
+                sort(arr, pi + 1, high);
+                high = pi - 1;
+            }
+        }
+    }
+
+    private int partition(double[] arr, int low, int high) {
+        swap(arr, high, IntroSort.choosePivot(arr, low, high));
+        double pivot = arr[high];
+        int i = low - 1;
+        for (int j = low ; j < high ; j++) {
+            if (arr[j] < pivot) swap(arr, ++i, j);
+        }
+        swap(arr, i + 1, high);
+        return i + 1;
+    }
+
+    private static int gatherEqual(double[] arr, int low, int high) {
+        int eq = low;
+        for (int j = low + 1; j <= high; j++)
+            if (arr[j] == arr[low]) swap(arr, ++eq, j);
+        return eq + 1;
+    }
+
+    private void threeWaySort(double[] arr, int low, int high) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            swap(arr, low, IntroSort.choosePivot(arr, low, high));
+            double pivot = arr[low];
+
+            int lt = low, gt = high, i = low + 1;
+            while (i <= gt) {
+                if (arr[i] < pivot) swap(arr, lt++, i++);
+                else if (arr[i] > pivot) swap(arr, i, gt--);
+                else i++;
+            }
+
+            if (lt - low < high - gt) {
+                threeWaySort(arr, low, lt - 1);
+                low = gt + 1;
+            } else {
+                threeWaySort(arr, gt + 1, high);
+                high = lt - 1;
+            }
+        }
+        insertionSort.sort(arr, low, high + 1);
+    }
+
+    private void dualPivotSort(double[] arr, int low, int high) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            // Sort five evenly spaced samples and use the 2nd and 4th as
+            // pivots, moved to the ends
+            int step = (high - low) / 6;
+            int first = ((low + high) >>> 1) - 2 * step;
+            sortSamples(arr, first, step);
+            swap(arr, low, first + step);
+            swap(arr, high, first + 3 * step);
+            double p = arr[low], q = arr[high];
+
+            int lt = low + 1, gt = high - 1, i = low + 1;
+            while (i <= gt) {
+                if (arr[i] < p) {
+                    swap(arr, lt++, i++);
+                } else if (arr[i] > q) {
+                    while (arr[gt] > q && i < gt) gt--;
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            swap(arr, low, --lt);
+            swap(arr, high, ++gt);
+
+            // Loop on the largest part and recurse into the other two,
+            // which are at most half the range each
+            int left = lt - low, right = high - gt;
+            int middle = p < q ? gt - lt - 1 : 0;
+            if (left >= middle && left >= right) {
+                if (middle > 0) dualPivotSort(arr, lt + 1, gt - 1);
+                dualPivotSort(arr, gt + 1, high);
+                high = lt - 1;
+            } else if (right >= middle) {
+                dualPivotSort(arr, low, lt - 1);
+                if (middle > 0) dualPivotSort(arr, lt + 1, gt - 1);
+                low = gt + 1;
+            } else {
+                dualPivotSort(arr, low, lt - 1);
+                dualPivotSort(arr, gt + 1, high);
+                low = lt + 1;
+                high = gt - 1;
+            }
+        }
+        insertionSort.sort(arr, low, high + 1);
+    }
+
+    private static void sortSamples(double[] arr, int first, int step) {
+        for (int i = first + step; i <= first + 4 * step; i += step) {
+            double value = arr[i];
+            int j = i - step;
+            while (j >= first && arr[j] > value) {
+                arr[j + step] = arr[j];
+                j -= step;
+            }
+            arr[j + step] = value;
+        }
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    private <T> void sort(T[] arr, int low, int high, Comparator<? super T> c) {
+        while (low < high) {
+            int pi = partition(arr, low, high, c);
+            if (pi == low) {
+                low = gatherEqual(arr, low, high, c);
+                continue;
+            }
+            if (pi - low < high - pi) {
+                sort(arr, low, pi - 1, c);
+                low = pi + 1;
+            } else {
+                sort(arr, pi + 1, high, c);
+                high = pi - 1;
+            }
+        }
+    }
+
+    private <T> int partition(T[] arr, int low, int high, Comparator<? super T> c) {
+        swap(arr, high, IntroSort.choosePivot(arr, low, high, c));
+        T pivot = arr[high];
+        int i = low - 1;
+        for (int j = low ; j < high ; j++) {
+            if (c.compare(arr[j], pivot) < 0) swap(arr, ++i, j);
+        }
+        swap(arr, i + 1, high);
+        return i + 1;
+    }
+
+    private static <T> int gatherEqual(T[] arr, int low, int high, Comparator<? super T> c) {
+        int eq = low;
+        for (int j = low + 1; j <= high; j++)
+            if (c.compare(arr[j], arr[low]) == 0) swap(arr, ++eq, j);
+        return eq + 1;
+    }
+
+    private <T> void threeWaySort(T[] arr, int low, int high, Comparator<? super T> c) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            swap(arr, low, IntroSort.choosePivot(arr, low, high, c));
+            T pivot = arr[low];
+
+            int lt = low, gt = high, i = low + 1;
+            while (i <= gt) {
+                int cmp = c.compare(arr[i], pivot);
+                if (cmp < 0) swap(arr, lt++, i++);
+                else if (cmp > 0) swap(arr, i, gt--);
+                else i++;
+            }
+
+            if (lt - low < high - gt) {
+                threeWaySort(arr, low, lt - 1, c);
+                low = gt + 1;
+            } else {
+                threeWaySort(arr, gt + 1, high, c);
+                high = lt - 1;
+            }
+        }
+        insertionSort.sort(arr, low, high + 1, c);
+    }
+
+    private <T> void dualPivotSort(T[] arr, int low, int high, Comparator<? super T> c) {
+        while (high - low >= IntroSort.INSERTION_SORT_CUTOFF) {
+            // Sort five evenly spaced samples and use the 2nd and 4th as
+            // pivots, moved to the ends
+            int step = (high - low) / 6;
+            int first = ((low + high) >>> 1) - 2 * step;
+            sortSamples(arr, first, step, c);
+            swap(arr, low, first + step);
+            swap(arr, high, first + 3 * step);
+            T p = arr[low], q = arr[high];
+
+            int lt = low + 1, gt = high - 1, i = low + 1;
+            while (i <= gt) {
+                if (c.compare(arr[i], p) < 0) {
+                    swap(arr, lt++, i++);
+                } else if (c.compare(arr[i], q) > 0) {
+                    while (c.compare(arr[gt], q) > 0 && i < gt) gt--;
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            swap(arr, low, --lt);
+            swap(arr, high, ++gt);
+
+            // Loop on the largest part and recurse into the other two,
+            // which are at most half the range each
+            int left = lt - low, right = high - gt;
+            int middle = c.compare(p, q) < 0 ? gt - lt - 1 : 0;
+            if (left >= middle && left >= right) {
+                if (middle > 0) dualPivotSort(arr, lt + 1, gt - 1, c);
+                dualPivotSort(arr, gt + 1, high, c);
+                high = lt - 1;
+            } else if (right >= middle) {
+                dualPivotSort(arr, low, lt - 1, c);
+                if (middle > 0) dualPivotSort(arr, lt + 1, gt - 1, c);
+                low = gt + 1;
+            } else {
+                dualPivotSort(arr, low, lt - 1, c);
+                dualPivotSort(arr, gt + 1, high, c);
+                low = lt + 1;
+                high = gt - 1;
+            }
+        }
+        insertionSort.sort(arr, low, high + 1, c);
+    }
+
+    private static <T> void sortSamples(T[] arr, int first, int step, Comparator<? super T> c) {
+        for (int i = first + step; i <= first + 4 * step; i += step) {
+            T value = arr[i];
+            int j = i - step;
+            while (j >= first && c.compare(arr[j], value) > 0) {
+                arr[j + step] = arr[j];
+                j -= step;
+            }
+            arr[j + step] = value;
+        }
+    }
+
+    private static <T> void swap(T[] arr, int i, int j) {
+        T temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
     @Override
     public void test() {
         int[] arr = { 12, 11, 13, 5, 6 };
 
-        int n = arr.length;
-        sort(arr, 0, n - 1);
-
+        sort(arr);
         ArrayHelper.print(arr);
     }
 
@@ -0,0 +1,41 @@
+package algs.sort;
+
+/**
+ * Orders row indices of columnar data kept in parallel primitive arrays,
+ * so rows can be sorted without boxing each one into an object.
+ *
+ * Composite keys are chained with thenComparing:
+ *   RowComparator.of(year).thenComparing(RowComparator.of(price).reversed())
+ */
+@FunctionalInterface
+public interface RowComparator {
+
+    int compare(int row1, int row2);
+
+    default RowComparator thenComparing(RowComparator next) {
+        return (i, j) -> {
+            int c = compare(i, j);
+            return c != 0 ? c : next.compare(i, j);
+        };
+    }
+
+    default RowComparator reversed() {
+        return (i, j) -> compare(j, i);
+    }
+
+    static RowComparator of(int[] column) {
+        return (i, j) -> Integer.compare(column[i], column[j]);
+    }
+
+    static RowComparator of(long[] column) {
+        return (i, j) -> Long.compare(column[i], column[j]);
+    }
+
+    /**
+     * Same order as Double.compare: -0.0 before 0.0 and NaN last
+     */
+    static RowComparator of(double[] column) {
+        return (i, j) -> Double.compare(column[i], column[j]);
+    }
+
+}
@@ -3,12 +3,15 @@ package algs.sort;
 import algs.shared.util.ArrayHelper;
 import algs.shared.util.Testable;
 
+import java.util.Comparator;
+
 /**
  * Best, Average, Worst: O(n2)
  */
-public class SelectionSort implements Testable {
+public class SelectionSort implements Sorter, Testable {
 
-    private void sort(int[] arr) {
+    @Override
+    public void sort(int[] arr) {
         int n = arr.length;
 
         // One by one move boundary of unsorted sub-array
@@ -26,6 +29,49 @@ public class SelectionSort implements Testable {
         }
     }
 
+    @Override
+    public void sort(long[] arr) {
+        int n = arr.length;
+        for (int i = 0; i < n-1; i++) {
+            int minIdx = i;
+            for (int j = i + 1; j < n; j++)
+                if (arr[j] < arr[minIdx]) minIdx = j;
+
+            long temp = arr[minIdx];
+            arr[minIdx] = arr[i];
+            arr[i] = temp;
+        }
+    }
+
+    @Override
+    public void sort(double[] arr) {
+        int n = Doubles.moveNaNsToEnd(arr);
+        for (int i = 0; i < n-1; i++) {
+            int minIdx = i;
+            for (int j = i + 1; j < n; j++)
+                if (arr[j] < arr[minIdx]) minIdx = j;
+
+            double temp = arr[minIdx];
+            arr[minIdx] = arr[i];
+            arr[i] = temp;
+        }
+        Doubles.orderZeros(arr, 0, n);
+    }
+
+    @Override
+    public <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        int n = arr.length;
+        for (int i = 0; i < n-1; i++) {
+            int minIdx = i;
+            for (int j = i + 1; j < n; j++)
+                if (comparator.compare(arr[j], arr[minIdx]) < 0) minIdx = j;
+
+            T temp = arr[minIdx];
+            arr[minIdx] = arr[i];
+            arr[i] = temp;
+        }
+    }
+
     @Override
     public void test() {
         int[] arr = { 12, 11, 13, 5, 6 };
@@ -0,0 +1,26 @@
+package algs.sort;
+
+import java.util.Comparator;
+
+/**
+ * Common entry points of the comparison sorts.
+ *
+ * The primitive overloads are implemented separately in every sorter,
+ * so they compare with the primitive operators and never box.
+ * double[] follows Double.compare order: -0.0 before 0.0, NaN last.
+ */
+public interface Sorter {
+
+    void sort(int[] arr);
+
+    void sort(long[] arr);
+
+    void sort(double[] arr);
+
+    <T> void sort(T[] arr, Comparator<? super T> comparator);
+
+    default <T extends Comparable<? super T>> void sort(T[] arr) {
+        sort(arr, Comparator.naturalOrder());
+    }
+
+}
@@ -0,0 +1,157 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+/**
+ * Best, Average, Worst: O(n log2 n) compare-exchanges, for n <= 16
+ *
+ * Sorting networks for arrays of up to 16 elements, used as the leaf
+ * sorter of QuickSort and MergeSort. A network is a fixed list of
+ * compare-exchange steps (i, j) that sorts any input, so nothing depends
+ * on the data except the values themselves: each step is a Math.min and
+ * a Math.max, which the JIT compiles to conditional moves. InsertionSort
+ * does fewer comparisons, but its inner loop exits at a data-dependent
+ * point that the branch predictor misses about once per element on
+ * random input.
+ *
+ * The networks are Batcher's odd-even merge sort, pruned to n inputs.
+ * They are optimal up to 8 inputs and within 5 comparators of the best
+ * known networks up to 16. They are not stable.
+ */
+public class SortingNetwork implements Testable {
+
+    public static final int MAX_SIZE = 16;
+
+    // NETWORKS[n] lists the compare-exchange pairs for n inputs, flattened
+    private static final byte[][] NETWORKS = {
+        {},
+        {},
+        // 2 inputs, 1 comparator
+        { 0, 1 },
+        // 3 inputs, 3 comparators
+        { 0, 1, 0, 2, 1, 2 },
+        // 4 inputs, 5 comparators
+        { 0, 1, 2, 3, 0, 2, 1, 3, 1, 2 },
+        // 5 inputs, 9 comparators
+        {
+            0, 1, 2, 3, 0, 2, 1, 3, 1, 2, 0, 4, 2, 4, 1, 2,
+            3, 4
+        },
+        // 6 inputs, 12 comparators
+        {
+            0, 1, 2, 3, 4, 5, 0, 2, 1, 3, 1, 2, 0, 4, 1, 5,
+            2, 4, 3, 5, 1, 2, 3, 4
+        },
+        // 7 inputs, 16 comparators
+        {
+            0, 1, 2, 3, 4, 5, 0, 2, 1, 3, 4, 6, 1, 2, 5, 6,
+            0, 4, 1, 5, 2, 6, 2, 4, 3, 5, 1, 2, 3, 4, 5, 6
+        },
+        // 8 inputs, 19 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 0, 2, 1, 3, 4, 6, 5, 7,
+            1, 2, 5, 6, 0, 4, 1, 5, 2, 6, 3, 7, 2, 4, 3, 5,
+            1, 2, 3, 4, 5, 6
+        },
+        // 9 inputs, 28 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 0, 2, 1, 3, 4, 6, 5, 7,
+            1, 2, 5, 6, 0, 4, 1, 5, 2, 6, 3, 7, 2, 4, 3, 5,
+            1, 2, 3, 4, 5, 6, 0, 8, 4, 8, 2, 4, 3, 5, 6, 8,
+            1, 2, 3, 4, 5, 6, 7, 8
+        },
+        // 10 inputs, 32 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 0, 2, 1, 3, 4, 6,
+            5, 7, 1, 2, 5, 6, 0, 4, 1, 5, 2, 6, 3, 7, 2, 4,
+            3, 5, 1, 2, 3, 4, 5, 6, 0, 8, 1, 9, 4, 8, 5, 9,
+            2, 4, 3, 5, 6, 8, 7, 9, 1, 2, 3, 4, 5, 6, 7, 8
+        },
+        // 11 inputs, 38 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 0, 2, 1, 3, 4, 6,
+            5, 7, 8, 10, 1, 2, 5, 6, 9, 10, 0, 4, 1, 5, 2, 6,
+            3, 7, 2, 4, 3, 5, 1, 2, 3, 4, 5, 6, 9, 10, 0, 8,
+            1, 9, 2, 10, 4, 8, 5, 9, 6, 10, 2, 4, 3, 5, 6, 8,
+            7, 9, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10
+        },
+        // 12 inputs, 42 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 0, 2, 1, 3,
+            4, 6, 5, 7, 8, 10, 9, 11, 1, 2, 5, 6, 9, 10, 0, 4,
+            1, 5, 2, 6, 3, 7, 2, 4, 3, 5, 1, 2, 3, 4, 5, 6,
+            9, 10, 0, 8, 1, 9, 2, 10, 3, 11, 4, 8, 5, 9, 6, 10,
+            7, 11, 2, 4, 3, 5, 6, 8, 7, 9, 1, 2, 3, 4, 5, 6,
+            7, 8, 9, 10
+        },
+        // 13 inputs, 48 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 0, 2, 1, 3,
+            4, 6, 5, 7, 8, 10, 9, 11, 1, 2, 5, 6, 9, 10, 0, 4,
+            1, 5, 2, 6, 3, 7, 8, 12, 2, 4, 3, 5, 10, 12, 1, 2,
+            3, 4, 5, 6, 9, 10, 11, 12, 0, 8, 1, 9, 2, 10, 3, 11,
+            4, 12, 4, 8, 5, 9, 6, 10, 7, 11, 2, 4, 3, 5, 6, 8,
+            7, 9, 10, 12, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12
+        },
+        // 14 inputs, 53 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 0, 2,
+            1, 3, 4, 6, 5, 7, 8, 10, 9, 11, 1, 2, 5, 6, 9, 10,
+            0, 4, 1, 5, 2, 6, 3, 7, 8, 12, 9, 13, 2, 4, 3, 5,
+            10, 12, 11, 13, 1, 2, 3, 4, 5, 6, 9, 10, 11, 12, 0, 8,
+            1, 9, 2, 10, 3, 11, 4, 12, 5, 13, 4, 8, 5, 9, 6, 10,
+            7, 11, 2, 4, 3, 5, 6, 8, 7, 9, 10, 12, 11, 13, 1, 2,
+            3, 4, 5, 6, 7, 8, 9, 10, 11, 12
+        },
+        // 15 inputs, 59 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 0, 2,
+            1, 3, 4, 6, 5, 7, 8, 10, 9, 11, 12, 14, 1, 2, 5, 6,
+            9, 10, 13, 14, 0, 4, 1, 5, 2, 6, 3, 7, 8, 12, 9, 13,
+            10, 14, 2, 4, 3, 5, 10, 12, 11, 13, 1, 2, 3, 4, 5, 6,
+            9, 10, 11, 12, 13, 14, 0, 8, 1, 9, 2, 10, 3, 11, 4, 12,
+            5, 13, 6, 14, 4, 8, 5, 9, 6, 10, 7, 11, 2, 4, 3, 5,
+            6, 8, 7, 9, 10, 12, 11, 13, 1, 2, 3, 4, 5, 6, 7, 8,
+            9, 10, 11, 12, 13, 14
+        },
+        // 16 inputs, 63 comparators
+        {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+            0, 2, 1, 3, 4, 6, 5, 7, 8, 10, 9, 11, 12, 14, 13, 15,
+            1, 2, 5, 6, 9, 10, 13, 14, 0, 4, 1, 5, 2, 6, 3, 7,
+            8, 12, 9, 13, 10, 14, 11, 15, 2, 4, 3, 5, 10, 12, 11, 13,
+            1, 2, 3, 4, 5, 6, 9, 10, 11, 12, 13, 14, 0, 8, 1, 9,
+            2, 10, 3, 11, 4, 12, 5, 13, 6, 14, 7, 15, 4, 8, 5, 9,
+            6, 10, 7, 11, 2, 4, 3, 5, 6, 8, 7, 9, 10, 12, 11, 13,
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14
+        },
+    };
+
+    public void sort(int[] arr) {
+        if (arr.length > MAX_SIZE)
+            throw new IllegalArgumentException("sorting networks go up to " + MAX_SIZE + " elements: " + arr.length);
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Sorts arr[lo..hi), which must hold at most MAX_SIZE elements
+     */
+    static void sort(int[] arr, int lo, int hi) {
+        byte[] network = NETWORKS[hi - lo];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = lo + network[c], j = lo + network[c + 1];
+            int a = arr[i], b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, 11, 13, 5, 6 };
+        sort(arr);
+        ArrayHelper.print(arr);
+    }
+
+}
@@ -0,0 +1,261 @@
+package algs.sort;
+
+import algs.shared.util.Distribution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs every int[] sorter on degenerate and adversarial inputs and fails
+ * (exit status 1) when one of them grows faster than n log n.
+ *
+ * Inputs are every Distribution plus McIlroy's antiqsort killer
+ * (AntiQuickSort) for the sorters with a Comparator entry point. Sizes
+ * double from MIN_SIZE up to maxSize, and each sort must finish within
+ * an envelope of
+ *   ENVELOPE * c * n log2 n + SLACK_NANOS
+ * where c is the sorter's own time per n log2 n on RANDOM input at
+ * CALIBRATION_SIZE. Doubling means a quadratic sorter is caught at a
+ * small size, after a few milliseconds, instead of hanging at 10M.
+ * A sort that runs past its envelope is abandoned on a daemon thread.
+ *
+ * Every result is also checked to be sorted and to hold the same keys.
+ *
+ * Every case over its envelope fails the run, QuickSort included. The
+ * one exception is the antiqsort killer against sorters documented as
+ * O(n2) in the worst case (the QuickSort modes): the killer is built to
+ * reach that worst case, so it is reported but does not fail the run.
+ * Each sorter gets budgetSeconds in total; sizes that would not fit the
+ * remaining budget are skipped.
+ *
+ * Run with: ./gradlew stress
+ * or: java algs.sort.StressHarness [maxSize [budgetSeconds]]
+ */
+public class StressHarness {
+
+    static final int MIN_SIZE = 1 << 10;
+    static final int CALIBRATION_SIZE = 1 << 16;
+    static final double ENVELOPE = 8;
+    static final long SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final int DEFAULT_MAX_SIZE = 10_000_000;
+    private static final int DEFAULT_BUDGET_SECONDS = 60;
+    private static final String KILLER = "ANTI_QUICKSORT";
+
+    private static final class Subject {
+        final String name;
+        final Consumer<int[]> sort;
+        // null when the sorter has no Comparator entry point to attack
+        final Sorter sorter;
+        final boolean quadraticWorstCase;
+
+        Subject(String name, Sorter sorter, boolean quadraticWorstCase) {
+            this(name, sorter::sort, sorter, quadraticWorstCase);
+        }
+
+        Subject(String name, Consumer<int[]> sort) {
+            this(name, sort, null, false);
+        }
+
+        Subject(String name, Consumer<int[]> sort, Sorter sorter, boolean quadraticWorstCase) {
+            this.name = name;
+            this.sort = sort;
+            this.sorter = sorter;
+            this.quadraticWorstCase = quadraticWorstCase;
+        }
+    }
+
+    private static List<Subject> subjects() {
+        List<Subject> list = new ArrayList<>();
+        list.add(new Subject("QuickSort(LOMUTO)", new QuickSort(QuickSort.Mode.LOMUTO), true));
+        list.add(new Subject("QuickSort(THREE_WAY)", new QuickSort(QuickSort.Mode.THREE_WAY), true));
+        list.add(new Subject("QuickSort(DUAL_PIVOT)", new QuickSort(QuickSort.Mode.DUAL_PIVOT), true));
+        list.add(new Subject("IntroSort", new IntroSort(), false));
+        list.add(new Subject("HeapSort", new HeapSort(), false));
+        list.add(new Subject("HeapSort(4-ary)", new HeapSort(HeapSort.QUATERNARY), false));
+        list.add(new Subject("MergeSort", new MergeSort(), false));
+        list.add(new Subject("MergeSort(CLASSIC)", new MergeSort(MergeSort.Mode.CLASSIC), false));
+        list.add(new Subject("InPlaceMergeSort", new InPlaceMergeSort(), false));
+        ArgSort argSort = new ArgSort(ArgSort.Mode.QUICK);
+        list.add(new Subject("ArgSort(QUICK)", arr -> ArgSort.apply(argSort.argsort(arr), arr)));
+        list.add(new Subject("TimSort", new TimSort(), false));
+        list.add(new Subject("ParallelMergeSort", new ParallelMergeSort()::sort));
+        list.add(new Subject("ParallelSampleSort", new ParallelSampleSort()::sort));
+        list.add(new Subject("LsdRadixSort", new LsdRadixSort()::sort));
+        list.add(new Subject("ParallelLsdRadixSort", new ParallelLsdRadixSort()::sort));
+        return list;
+    }
+
+    private final int maxSize;
+    private final long budgetNanos;
+    private ExecutorService worker = newWorker();
+    private int failures = 0;
+
+    StressHarness(int maxSize, int budgetSeconds) {
+        if (maxSize < MIN_SIZE) throw new IllegalArgumentException("max size must be at least " + MIN_SIZE + ": " + maxSize);
+        this.maxSize = maxSize;
+        this.budgetNanos = TimeUnit.SECONDS.toNanos(budgetSeconds);
+    }
+
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_SIZE;
+        int budget = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BUDGET_SECONDS;
+
+        StressHarness harness = new StressHarness(maxSize, budget);
+        for (Subject subject : subjects()) harness.run(subject);
+
+        System.out.println(harness.failures == 0 ? "PASS" : "FAIL: " + harness.failures + " case(s)");
+        System.exit(harness.failures == 0 ? 0 : 1);
+    }
+
+    private void run(Subject subject) {
+        System.out.println(">>> " + subject.name);
+        long deadline = System.nanoTime() + budgetNanos;
+        double perNLogN = calibrate(subject);
+
+        List<String> shapes = new ArrayList<>();
+        for (Distribution distribution : Distribution.values()) shapes.add(distribution.name());
+        if (subject.sorter != null) shapes.add(KILLER);
+
+        for (String shape : shapes) {
+            for (int n = MIN_SIZE; n > 0; n = nextSize(n)) {
+                double expected = perNLogN * nLogN(n);
+                long limit = (long) (ENVELOPE * expected) + SLACK_NANOS;
+                if (System.nanoTime() + limit > deadline) {
+                    System.out.printf("  %-14s n=%-9d skipped, out of budget%n", shape, n);
+                    break;
+                }
+                if (!runCase(subject, shape, n, expected, limit, deadline)) break;
+            }
+        }
+        System.out.println("<<< " + subject.name);
+        System.out.println();
+    }
+
+    // Doubles up to maxSize, then stops with 0
+    private int nextSize(int n) {
+        return n == maxSize ? 0 : (int) Math.min(2L * n, maxSize);
+    }
+
+    // Nanoseconds per n log2 n comparison on random input, after warming up
+    private double calibrate(Subject subject) {
+        int[] source = Distribution.RANDOM.generate(CALIBRATION_SIZE);
+        long best = Long.MAX_VALUE;
+        for (int rep = 0; rep < 10; rep++) {
+            int[] arr = source.clone();
+            long start = System.nanoTime();
+            subject.sort.accept(arr);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / nLogN(CALIBRATION_SIZE);
+    }
+
+    /**
+     * One sort of shape at size n, expected to take about as long as
+     * random input. Returns false when larger sizes of this shape are not
+     * worth trying.
+     */
+    private boolean runCase(Subject subject, String shape, int n, double expected, long limit, long deadline) {
+        int[] arr;
+        try {
+            arr = shape.equals(KILLER)
+                    ? call(() -> AntiQuickSort.killer(subject.sorter, n), deadline - System.nanoTime())
+                    : Distribution.valueOf(shape).generate(n);
+        } catch (TimeoutException e) {
+            System.out.printf("  %-14s n=%-9d skipped, building the killer ran out of budget%n", shape, n);
+            return false;
+        } catch (ExecutionException e) {
+            return report(subject, shape, n, "killer failed: " + e.getCause());
+        }
+
+        long checksum = checksum(arr);
+        long elapsed;
+        try {
+            long start = System.nanoTime();
+            call(() -> {
+                subject.sort.accept(arr);
+                return arr;
+            }, limit);
+            elapsed = System.nanoTime() - start;
+        } catch (TimeoutException e) {
+            return report(subject, shape, n, String.format("over the n log n envelope of %.1f ms", limit / 1e6));
+        } catch (ExecutionException e) {
+            return report(subject, shape, n, e.getCause().toString());
+        }
+
+        if (!isSorted(arr) || checksum(arr) != checksum)
+            return report(subject, shape, n, "output is not a sorted permutation of the input");
+
+        System.out.printf("  %-14s n=%-9d %9.2f ms  %5.2fx random%n",
+                shape, n, elapsed / 1e6, elapsed / expected);
+        return true;
+    }
+
+    private boolean report(Subject subject, String shape, int n, String reason) {
+        boolean expected = subject.quadraticWorstCase && shape.equals(KILLER);
+        String verdict = expected ? "known O(n2)" : "FAIL";
+        if (!expected) failures++;
+        System.out.printf("  %-14s n=%-9d %s: %s%n", shape, n, verdict, reason);
+        return false;
+    }
+
+    /**
+     * Runs task on the worker thread and waits at most timeout nanoseconds.
+     * A task that times out cannot be stopped, so its thread is abandoned
+     * and later tasks go to a fresh one.
+     */
+    private <T> T call(Callable<T> task, long timeout)
+            throws TimeoutException, ExecutionException {
+        Future<T> future = worker.submit(task);
+        try {
+            return future.get(Math.max(timeout, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            worker.shutdownNow();
+            worker = newWorker();
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException(e);
+        }
+    }
+
+    private static ExecutorService newWorker() {
+        return Executors.newSingleThreadExecutor(r -> {
+            // Deep recursion (LOMUTO on sorted input) needs a large stack
+            // to fail by timing out rather than by StackOverflowError
+            Thread t = new Thread(null, r, "stress-harness-sort", 1L << 28);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static double nLogN(int n) {
+        return n * (Math.log(n) / Math.log(2));
+    }
+
+    private static boolean isSorted(int[] arr) {
+        for (int i = 1; i < arr.length; i++)
+            if (arr[i - 1] > arr[i]) return false;
+        return true;
+    }
+
+    // Order-independent, so a sort that loses or duplicates keys is caught
+    private static long checksum(int[] arr) {
+        long sum = 0, squares = 0;
+        for (int value : arr) {
+            sum += value;
+            squares += (long) value * value;
+        }
+        return sum * 31 + squares;
+    }
+
+}
@@ -0,0 +1,1034 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Best: O(n) Average, Worst: O(n log n)
+ *
+ * Natural merge sort after Tim Peters' description of the list sort he
+ * wrote for CPython (listsort.txt):
+ * 1. The input is scanned left to right for runs: maximal non-descending
+ *    stretches, or strictly descending ones, which are reversed. A run
+ *    shorter than minRun is extended to minRun by binary insertion sort.
+ * 2. Each run is pushed on a stack of pending runs, and neighbours on
+ *    the stack are merged until, with w, x, y, z the lengths of the top
+ *    four runs (z on top), w > x + y, x > y + z and y > z. The lengths
+ *    then grow at least like the Fibonacci numbers, so the stack stays
+ *    O(log n) deep and merges are between runs of similar length.
+ *    Checking w too is the fix from de Gouw et al., "OpenJDK's
+ *    java.utils.Collection.sort() is broken" (CAV 2015): with only the
+ *    top three checked, the invariant can break further down the stack.
+ * 3. A merge skips the keys at both ends that are already in place and
+ *    copies the shorter of the two runs that remain to a temp array.
+ *    When one run wins minGallop times in a row, the merge gallops: an
+ *    exponential search finds how many keys in a row that run wins, and
+ *    they move with a single arraycopy. minGallop falls while galloping
+ *    pays off and rises when it stops paying.
+ *
+ * Stable. Presorted or strictly descending input is a single run and
+ * takes n - 1 comparisons. The temp array grows to at most n / 2 keys.
+ */
+public class TimSort implements Sorter, Testable {
+
+    // Wins in a row that first switch a merge to galloping
+    private static final int MIN_GALLOP = 7;
+
+    @Override
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Sorts arr[lo..hi)
+     */
+    void sort(int[] arr, int lo, int hi) {
+        new IntRuns(arr).sort(lo, hi);
+    }
+
+    @Override
+    public void sort(long[] arr) {
+        new LongRuns(arr).sort(0, arr.length);
+    }
+
+    @Override
+    public void sort(double[] arr) {
+        int end = Doubles.moveNaNsToEnd(arr);
+        new DoubleRuns(arr).sort(0, end);
+        Doubles.orderZeros(arr, 0, end);
+    }
+
+    /**
+     * Stable: equal elements keep their original order
+     */
+    @Override
+    public <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        new ObjectRuns<>(arr, comparator).sort(0, arr.length);
+    }
+
+    /**
+     * Run length below which runs are extended by insertion sort: n
+     * itself below 32, otherwise n shifted down to its five leading bits,
+     * plus one if any bit shifted out was set. That keeps it in [16, 32]
+     * and makes n / minRun a power of two or just below one, so the last
+     * merges are balanced. listsort.txt keeps six bits, for [32, 64];
+     * five keeps the binary insertion sorts, which move O(minRun^2) keys
+     * per run, shorter on primitive keys that are cheap to compare.
+     */
+    static int minRun(int n) {
+        int shift = Math.max(0, 32 - Integer.numberOfLeadingZeros(n) - 5);
+        int run = n >>> shift;
+        return (n & ((1 << shift) - 1)) != 0 ? run + 1 : run;
+    }
+
+    /**
+     * The stack of pending runs of one sort call; the subclasses hold
+     * the array and know how to find, extend and merge its runs
+     */
+    private abstract static class Runs {
+        private int[] base = new int[16];
+        private int[] length = new int[16];
+        private int size = 0;
+
+        /**
+         * End of the run starting at lo, left ascending
+         */
+        abstract int nextRun(int lo, int hi);
+
+        /**
+         * Sorts [lo..hi) given that [lo..sorted) is sorted
+         */
+        abstract void insertionSort(int lo, int sorted, int hi);
+
+        /**
+         * Merges the adjacent sorted runs [lo..mid) and [mid..hi)
+         */
+        abstract void merge(int lo, int mid, int hi);
+
+        final void sort(int lo, int hi) {
+            if (hi - lo < 2) return;
+            int minRun = minRun(hi - lo);
+            for (int start = lo; start < hi; ) {
+                int end = nextRun(start, hi);
+                if (end - start < minRun) {
+                    int forced = start + Math.min(minRun, hi - start);
+                    insertionSort(start, end, forced);
+                    end = forced;
+                }
+                push(start, end - start);
+                collapse();
+                start = end;
+            }
+
+            while (size > 1)
+                mergeAt(size > 2 && length[size - 3] < length[size - 1] ? size - 3 : size - 2);
+        }
+
+        private void push(int start, int runLength) {
+            if (size == base.length) {
+                base = Arrays.copyOf(base, 2 * size);
+                length = Arrays.copyOf(length, 2 * size);
+            }
+            base[size] = start;
+            length[size] = runLength;
+            size++;
+        }
+
+        // Merges until the length invariants hold for the top of the stack
+        private void collapse() {
+            while (size > 1) {
+                int z = size - 1, y = z - 1, x = y - 1, w = x - 1;
+                boolean xTooShort = x >= 0 && length[x] <= length[y] + length[z];
+                boolean wTooShort = w >= 0 && length[w] <= length[x] + length[y];
+                if (xTooShort || wTooShort) mergeAt(length[x] < length[z] ? x : y);
+                else if (length[y] <= length[z]) mergeAt(y);
+                else break;
+            }
+        }
+
+        // Merges runs i and i + 1 into run i
+        private void mergeAt(int i) {
+            int lo = base[i], mid = base[i + 1], hi = mid + length[i + 1];
+            length[i] += length[i + 1];
+            for (int j = i + 1; j < size - 1; j++) {
+                base[j] = base[j + 1];
+                length[j] = length[j + 1];
+            }
+            size--;
+            merge(lo, mid, hi);
+        }
+    }
+
+    /**
+     * Runs of a int[]: finds them, and merges them with a temp array of the
+     * shorter run and galloping
+     */
+    private static final class IntRuns extends Runs {
+        private final int[] a;
+        private int[] tmp = new int[0];
+        // Wins in a row that switch a merge to galloping; adapts as it goes
+        private int minGallop = MIN_GALLOP;
+
+        IntRuns(int[] a) {
+            this.a = a;
+        }
+
+        @Override
+        int nextRun(int lo, int hi) {
+            int end = lo + 1;
+            if (end == hi) return end;
+            if (a[end] < a[lo]) {
+                // Strictly descending, so reversing it keeps equal keys in order
+                do end++; while (end < hi && a[end] < a[end - 1]);
+                for (int i = lo, j = end - 1; i < j; i++, j--) {
+                    int temp = a[i];
+                    a[i] = a[j];
+                    a[j] = temp;
+                }
+            } else {
+                do end++; while (end < hi && a[end] >= a[end - 1]);
+            }
+            return end;
+        }
+
+        @Override
+        void insertionSort(int lo, int sorted, int hi) {
+            for (int i = Math.max(sorted, lo + 1); i < hi; i++) {
+                int key = a[i];
+                // Insert after any equal keys
+                int left = lo, right = i;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (key < a[mid]) right = mid;
+                    else left = mid + 1;
+                }
+                System.arraycopy(a, left, a, left + 1, i - left);
+                a[left] = key;
+            }
+        }
+
+        @Override
+        void merge(int lo, int mid, int hi) {
+            // Keys of the left run not greater than a[mid], and keys of the
+            // right run not smaller than a[mid - 1], are already in place
+            lo = gallop(a[mid], a, lo, mid, true, false);
+            if (lo == mid) return;
+            hi = gallop(a[mid - 1], a, mid, hi, false, true);
+
+            // Now a[mid - 1] goes last and a[mid] first, so a run of one
+            // key only moves past the other run
+            if (mid - lo == 1) {
+                int key = a[lo];
+                System.arraycopy(a, mid, a, lo, hi - mid);
+                a[hi - 1] = key;
+            } else if (hi - mid == 1) {
+                int key = a[mid];
+                System.arraycopy(a, lo, a, lo + 1, mid - lo);
+                a[lo] = key;
+            } else if (mid - lo <= hi - mid) {
+                mergeLeft(lo, mid, hi);
+            } else {
+                mergeRight(lo, mid, hi);
+            }
+        }
+
+        /**
+         * Merges a[lo..mid) and a[mid..hi) front to back, with the left
+         * run moved to tmp
+         */
+        private void mergeLeft(int lo, int mid, int hi) {
+            int[] a = this.a;
+            int n1 = mid - lo;
+            int[] t = tmp(n1);
+            System.arraycopy(a, lo, t, 0, n1);
+
+            // Next key of each run: t[i] and a[j]; next slot: a[k]
+            int i = 0, j = mid, k = lo;
+            int minGallop = this.minGallop;
+            while (i < n1 && j < hi) {
+                int leftWins = 0, rightWins = 0;
+                while (leftWins + rightWins < minGallop) {
+                    if (a[j] < t[i]) {
+                        a[k++] = a[j++];
+                        rightWins++;
+                        leftWins = 0;
+                        if (j == hi) break;
+                    } else {
+                        a[k++] = t[i++];
+                        leftWins++;
+                        rightWins = 0;
+                        if (i == n1) break;
+                    }
+                }
+                if (i == n1 || j == hi) break;
+
+                // One run keeps winning: move whole blocks while they are long
+                do {
+                    int end = gallop(a[j], t, i, n1, true, false);
+                    leftWins = end - i;
+                    System.arraycopy(t, i, a, k, leftWins);
+                    k += leftWins;
+                    i = end;
+                    if (i == n1) break;
+
+                    end = gallop(t[i], a, j, hi, false, false);
+                    rightWins = end - j;
+                    System.arraycopy(a, j, a, k, rightWins);
+                    k += rightWins;
+                    j = end;
+                    if (j == hi) break;
+
+                    if (minGallop > 1) minGallop--;
+                } while (leftWins >= MIN_GALLOP || rightWins >= MIN_GALLOP);
+                minGallop += 2;
+            }
+            this.minGallop = minGallop;
+
+            // The rest of the right run is already in place
+            System.arraycopy(t, i, a, k, n1 - i);
+        }
+
+        /**
+         * Merges a[lo..mid) and a[mid..hi) back to front, with the right
+         * run moved to tmp
+         */
+        private void mergeRight(int lo, int mid, int hi) {
+            int[] a = this.a;
+            int n2 = hi - mid;
+            int[] t = tmp(n2);
+            System.arraycopy(a, mid, t, 0, n2);
+
+            // Last key of each run: a[i] and t[j]; last free slot: a[k]
+            int i = mid - 1, j = n2 - 1, k = hi - 1;
+            int minGallop = this.minGallop;
+            while (i >= lo && j >= 0) {
+                int leftWins = 0, rightWins = 0;
+                while (leftWins + rightWins < minGallop) {
+                    if (t[j] < a[i]) {
+                        a[k--] = a[i--];
+                        leftWins++;
+                        rightWins = 0;
+                        if (i < lo) break;
+                    } else {
+                        a[k--] = t[j--];
+                        rightWins++;
+                        leftWins = 0;
+                        if (j < 0) break;
+                    }
+                }
+                if (i < lo || j < 0) break;
+
+                do {
+                    int start = gallop(t[j], a, lo, i + 1, true, true);
+                    leftWins = i + 1 - start;
+                    k -= leftWins;
+                    System.arraycopy(a, start, a, k + 1, leftWins);
+                    i = start - 1;
+                    if (i < lo) break;
+
+                    start = gallop(a[i], t, 0, j + 1, false, true);
+                    rightWins = j + 1 - start;
+                    k -= rightWins;
+                    System.arraycopy(t, start, a, k + 1, rightWins);
+                    j = start - 1;
+                    if (j < 0) break;
+
+                    if (minGallop > 1) minGallop--;
+                } while (leftWins >= MIN_GALLOP || rightWins >= MIN_GALLOP);
+                minGallop += 2;
+            }
+            this.minGallop = minGallop;
+
+            // The rest of the left run is already in place
+            System.arraycopy(t, 0, a, k - j, j + 1);
+        }
+
+        /**
+         * First index of arr[lo..hi) whose key goes after key, where equal
+         * keys go before it when equalFirst is true. The search probes 1,
+         * 2, 4, ... keys in from one end before bisecting, so it costs
+         * O(log d) comparisons for an answer d keys from that end.
+         */
+        private int gallop(int key, int[] arr, int lo, int hi, boolean equalFirst, boolean fromRight) {
+            // The answer is in [left, right]
+            int left = lo, right = hi;
+            int n = hi - lo;
+            for (int step = 1; step <= n; step = step > n >> 1 ? n + 1 : step << 1) {
+                int probe = fromRight ? hi - step : lo + step - 1;
+                boolean before = equalFirst ? key >= arr[probe] : arr[probe] < key;
+                if (fromRight) {
+                    if (before) {
+                        left = probe + 1;
+                        break;
+                    }
+                    right = probe;
+                } else {
+                    if (!before) {
+                        right = probe;
+                        break;
+                    }
+                    left = probe + 1;
+                }
+            }
+
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                boolean before = equalFirst ? key >= arr[mid] : arr[mid] < key;
+                if (before) left = mid + 1;
+                else right = mid;
+            }
+            return left;
+        }
+
+        // tmp with room for n keys; grows geometrically up to half the array
+        private int[] tmp(int n) {
+            if (tmp.length < n)
+                tmp = new int[Math.max(n, Math.min(2 * tmp.length, a.length >>> 1))];
+            return tmp;
+        }
+    }
+
+    // Same as IntRuns, for long[]
+    private static final class LongRuns extends Runs {
+        private final long[] a;
+        private long[] tmp = new long[0];
+        private int minGallop = MIN_GALLOP;
+
+        LongRuns(long[] a) {
+            this.a = a;
+        }
+
+        @Override
+        int nextRun(int lo, int hi) {
+            int end = lo + 1;
+            if (end == hi) return end;
+            if (a[end] < a[lo]) {
+                // Strictly descending, so reversing it keeps equal keys in order
+                do end++; while (end < hi && a[end] < a[end - 1]);
+                for (int i = lo, j = end - 1; i < j; i++, j--) {
+                    long temp = a[i];
+                    a[i] = a[j];
+                    a[j] = temp;
+                }
+            } else {
+                do end++; while (end < hi && a[end] >= a[end - 1]);
+            }
+            return end;
+        }
+
+        @Override
+        void insertionSort(int lo, int sorted, int hi) {
+            for (int i = Math.max(sorted, lo + 1); i < hi; i++) {
+                long key = a[i];
+                // Insert after any equal keys
+                int left = lo, right = i;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (key < a[mid]) right = mid;
+                    else left = mid + 1;
+                }
+                System.arraycopy(a, left, a, left + 1, i - left);
+                a[left] = key;
+            }
+        }
+
+        @Override
+        void merge(int lo, int mid, int hi) {
+            // Keys of the left run not greater than a[mid], and keys of the
+            // right run not smaller than a[mid - 1], are already in place
+            lo = gallop(a[mid], a, lo, mid, true, false);
+            if (lo == mid) return;
+            hi = gallop(a[mid - 1], a, mid, hi, false, true);
+
+            // Now a[mid - 1] goes last and a[mid] first, so a run of one
+            // key only moves past the other run
+            if (mid - lo == 1) {
+                long key = a[lo];
+                System.arraycopy(a, mid, a, lo, hi - mid);
+                a[hi - 1] = key;
+            } else if (hi - mid == 1) {
+                long key = a[mid];
+                System.arraycopy(a, lo, a, lo + 1, mid - lo);
+                a[lo] = key;
+            } else if (mid - lo <= hi - mid) {
+                mergeLeft(lo, mid, hi);
+            } else {
+                mergeRight(lo, mid, hi);
+            }
+        }
+
+        private void mergeLeft(int lo, int mid, int hi) {
+            long[] a = this.a;
+            int n1 = mid - lo;
+            long[] t = tmp(n1);
+            System.arraycopy(a, lo, t, 0, n1);
+
+            // Next key of each run: t[i] and a[j]; next slot: a[k]
+            int i = 0, j = mid, k = lo;
+            int minGallop = this.minGallop;
+            while (i < n1 && j < hi) {
+                int leftWins = 0, rightWins = 0;
+                while (leftWins + rightWins < minGallop) {
+                    if (a[j] < t[i]) {
+                        a[k++] = a[j++];
+                        rightWins++;
+                        leftWins = 0;
+                        if (j == hi) break;
+                    } else {
+                        a[k++] = t[i++];
+                        leftWins++;
+                        rightWins = 0;
+                        if (i == n1) break;
+                    }
+                }
+                if (i == n1 || j == hi) break;
+
+                // One run keeps winning: move whole blocks while they are long
+                do {
+                    int end = gallop(a[j], t, i, n1, true, false);
+                    leftWins = end - i;
+                    System.arraycopy(t, i, a, k, leftWins);
+                    k += leftWins;
+                    i = end;
+                    if (i == n1) break;
+
+                    end = gallop(t[i], a, j, hi, false, false);
+                    rightWins = end - j;
+                    System.arraycopy(a, j, a, k, rightWins);
+                    k += rightWins;
+                    j = end;
+                    if (j == hi) break;
+
+                    if (minGallop > 1) minGallop--;
+                } while (leftWins >= MIN_GALLOP || rightWins >= MIN_GALLOP);
+                minGallop += 2;
+            }
+            this.minGallop = minGallop;
+
+            // The rest of the right run is already in place
+            System.arraycopy(t, i, a, k, n1 - i);
+        }
+
+        private void mergeRight(int lo, int mid, int hi) {
+            long[] a = this.a;
+            int n2 = hi - mid;
+            long[] t = tmp(n2);
+            System.arraycopy(a, mid, t, 0, n2);
+
+            // Last key of each run: a[i] and t[j]; last free slot: a[k]
+            int i = mid - 1, j = n2 - 1, k = hi - 1;
+            int minGallop = this.minGallop;
+            while (i >= lo && j >= 0) {
+                int leftWins = 0, rightWins = 0;
+                while (leftWins + rightWins < minGallop) {
+                    if (t[j] < a[i]) {
+                        a[k--] = a[i--];
+                        leftWins++;
+                        rightWins = 0;
+                        if (i < lo) break;
+                    } else {
+                        a[k--] = t[j--];
+                        rightWins++;
+                        leftWins = 0;
+                        if (j < 0) break;
+                    }
+                }
+                if (i < lo || j < 0) break;
+
+                do {
+                    int start = gallop(t[j], a, lo, i + 1, true, true);
+                    leftWins = i + 1 - start;
+                    k -= leftWins;
+                    System.arraycopy(a, start, a, k + 1, leftWins);
+                    i = start - 1;
+                    if (i < lo) break;
+
+                    start = gallop(a[i], t, 0, j + 1, false, true);
+                    rightWins = j + 1 - start;
+                    k -= rightWins;
+                    System.arraycopy(t, start, a, k + 1, rightWins);
+                    j = start - 1;
+                    if (j < 0) break;
+
+                    if (minGallop > 1) minGallop--;
+                } while (leftWins >= MIN_GALLOP || rightWins >= MIN_GALLOP);
+                minGallop += 2;
+            }
+            this.minGallop = minGallop;
+
+            // The rest of the left run is already in place
+            System.arraycopy(t, 0, a, k - j, j + 1);
+        }
+
+        private int gallop(long key, long[] arr, int lo, int hi, boolean equalFirst, boolean fromRight) {
+            // The answer is in [left, right]
+            int left = lo, right = hi;
+            int n = hi - lo;
+            for (int step = 1; step <= n; step = step > n >> 1 ? n + 1 : step << 1) {
+                int probe = fromRight ? hi - step : lo + step - 1;
+                boolean before = equalFirst ? key >= arr[probe] : arr[probe] < key;
+                if (fromRight) {
+                    if (before) {
+                        left = probe + 1;
+                        break;
+                    }
+                    right = probe;
+                } else {
+                    if (!before) {
+                        right = probe;
+                        break;
+                    }
+                    left = probe + 1;
+                }
+            }
+
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                boolean before = equalFirst ? key >= arr[mid] : arr[mid] < key;
+                if (before) left = mid + 1;
+                else right = mid;
+            }
+            return left;
+        }
+
+        private long[] tmp(int n) {
+            if (tmp.length < n)
+                tmp = new long[Math.max(n, Math.min(2 * tmp.length, a.length >>> 1))];
+            return tmp;
+        }
+    }
+
+    // Same as IntRuns, for double[]; the caller has moved the NaNs out
+    private static final class DoubleRuns extends Runs {
+        private final double[] a;
+        private double[] tmp = new double[0];
+        private int minGallop = MIN_GALLOP;
+
+        DoubleRuns(double[] a) {
+            this.a = a;
+        }
+
+        @Override
+        int nextRun(int lo, int hi) {
+            int end = lo + 1;
+            if (end == hi) return end;
+            if (a[end] < a[lo]) {
+                // Strictly descending, so reversing it keeps equal keys in order
+                do end++; while (end < hi && a[end] < a[end - 1]);
+                for (int i = lo, j = end - 1; i < j; i++, j--) {
+                    double temp = a[i];
+                    a[i] = a[j];
+                    a[j] = temp;
+                }
+            } else {
+                do end++; while (end < hi && a[end] >= a[end - 1]);
+            }
+            return end;
+        }
+
+        @Override
+        void insertionSort(int lo, int sorted, int hi) {
+            for (int i = Math.max(sorted, lo + 1); i < hi; i++) {
+                double key = a[i];
+                // Insert after any equal keys
+                int left = lo, right = i;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (key < a[mid]) right = mid;
+                    else left = mid + 1;
+                }
+                System.arraycopy(a, left, a, left + 1, i - left);
+                a[left] = key;
+            }
+        }
+
+        @Override
+        void merge(int lo, int mid, int hi) {
+            // Keys of the left run not greater than a[mid], and keys of the
+            // right run not smaller than a[mid - 1], are already in place
+            lo = gallop(a[mid], a, lo, mid, true, false);
+            if (lo == mid) return;
+            hi = gallop(a[mid - 1], a, mid, hi, false, true);
+
+            // Now a[mid - 1] goes last and a[mid] first, so a run of one
+            // key only moves past the other run
+            if (mid - lo == 1) {
+                double key = a[lo];
+                System.arraycopy(a, mid, a, lo, hi - mid);
+                a[hi - 1] = key;
+            } else if (hi - mid == 1) {
+                double key = a[mid];
+                System.arraycopy(a, lo, a, lo + 1, mid - lo);
+                a[lo] = key;
+            } else if (mid - lo <= hi - mid) {
+                mergeLeft(lo, mid, hi);
+            } else {
+                mergeRight(lo, mid, hi);
+            }
+        }
+
+        private void mergeLeft(int lo, int mid, int hi) {
+            double[] a = this.a;
+            int n1 = mid - lo;
+            double[] t = tmp(n1);
+            System.arraycopy(a, lo, t, 0, n1);
+
+            // Next key of each run: t[i] and a[j]; next slot: a[k]
+            int i = 0, j = mid, k = lo;
+            int minGallop = this.minGallop;
+            while (i < n1 && j < hi) {
+                int leftWins = 0, rightWins = 0;
+                while (leftWins + rightWins < minGallop) {
+                    if (a[j] < t[i]) {
+                        a[k++] = a[j++];
+                        rightWins++;
+                        leftWins = 0;
+                        if (j == hi) break;
+                    } else {
+                        a[k++] = t[i++];
+                        leftWins++;
+                        rightWins = 0;
+                        if (i == n1) break;
+                    }
+                }
+                if (i == n1 || j == hi) break;
+
+                // One run keeps winning: move whole blocks while they are long
+                do {
+                    int end = gallop(a[j], t, i, n1, true, false);
+                    leftWins = end - i;
+                    System.arraycopy(t, i, a, k, leftWins);
+                    k += leftWins;
+                    i = end;
+                    if (i == n1) break;
+
+                    end = gallop(t[i], a, j, hi, false, false);
+                    rightWins = end - j;
+                    System.arraycopy(a, j, a, k, rightWins);
+                    k += rightWins;
+                    j = end;
+                    if (j == hi) break;
+
+                    if (minGallop > 1) minGallop--;
+                } while (leftWins >= MIN_GALLOP || rightWins >= MIN_GALLOP);
+                minGallop += 2;
+            }
+            this.minGallop = minGallop;
+
+            // The rest of the right run is already in place
+            System.arraycopy(t, i, a, k, n1 - i);
+        }
+
+        private void mergeRight(int lo, int mid, int hi) {
+            double[] a = this.a;
+            int n2 = hi - mid;
+            double[] t = tmp(n2);
+            System.arraycopy(a, mid, t, 0, n2);
+
+            // Last key of each run: a[i] and t[j]; last free slot: a[k]
+            int i = mid - 1, j = n2 - 1, k = hi - 1;
+            int minGallop = this.minGallop;
+            while (i >= lo && j >= 0) {
+                int leftWins = 0, rightWins = 0;
+                while (leftWins + rightWins < minGallop) {
+                    if (t[j] < a[i]) {
+                        a[k--] = a[i--];
+                        leftWins++;
+                        rightWins = 0;
+                        if (i < lo) break;
+                    } else {
+                        a[k--] = t[j--];
+                        rightWins++;
+                        leftWins = 0;
+                        if (j < 0) break;
+                    }
+                }
+                if (i < lo || j < 0) break;
+
+                do {
+                    int start = gallop(t[j], a, lo, i + 1, true, true);
+                    leftWins = i + 1 - start;
+                    k -= leftWins;
+                    System.arraycopy(a, start, a, k + 1, leftWins);
+                    i = start - 1;
+                    if (i < lo) break;
+
+                    start = gallop(a[i], t, 0, j + 1, false, true);
+                    rightWins = j + 1 - start;
+                    k -= rightWins;
+                    System.arraycopy(t, start, a, k + 1, rightWins);
+                    j = start - 1;
+                    if (j < 0) break;
+
+                    if (minGallop > 1) minGallop--;
+                } while (leftWins >= MIN_GALLOP || rightWins >= MIN_GALLOP);
+                minGallop += 2;
+            }
+            this.minGallop = minGallop;
+
+            // The rest of the left run is already in place
+            System.arraycopy(t, 0, a, k - j, j + 1);
+        }
+
+        private int gallop(double key, double[] arr, int lo, int hi, boolean equalFirst, boolean fromRight) {
+            // The answer is in [left, right]
+            int left = lo, right = hi;
+            int n = hi - lo;
+            for (int step = 1; step <= n; step = step > n >> 1 ? n + 1 : step << 1) {
+                int probe = fromRight ? hi - step : lo + step - 1;
+                boolean before = equalFirst ? key >= arr[probe] : arr[probe] < key;
+                if (fromRight) {
+                    if (before) {
+                        left = probe + 1;
+                        break;
+                    }
+                    right = probe;
+                } else {
+                    if (!before) {
+                        right = probe;
+                        break;
+                    }
+                    left = probe + 1;
+                }
+            }
+
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                boolean before = equalFirst ? key >= arr[mid] : arr[mid] < key;
+                if (before) left = mid + 1;
+                else right = mid;
+            }
+            return left;
+        }
+
+        private double[] tmp(int n) {
+            if (tmp.length < n)
+                tmp = new double[Math.max(n, Math.min(2 * tmp.length, a.length >>> 1))];
+            return tmp;
+        }
+    }
+
+    // Same as IntRuns, for a T[] ordered by c
+    private static final class ObjectRuns<T> extends Runs {
+        private final T[] a;
+        private final Comparator<? super T> c;
+        private T[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        ObjectRuns(T[] a, Comparator<? super T> c) {
+            this.a = a;
+            this.c = c;
+            this.tmp = Arrays.copyOf(a, 0);
+        }
+
+        @Override
+        int nextRun(int lo, int hi) {
+            int end = lo + 1;
+            if (end == hi) return end;
+            if (c.compare(a[end], a[lo]) < 0) {
+                // Strictly descending, so reversing it keeps equal keys in order
+                do end++; while (end < hi && c.compare(a[end], a[end - 1]) < 0);
+                for (int i = lo, j = end - 1; i < j; i++, j--) {
+                    T temp = a[i];
+                    a[i] = a[j];
+                    a[j] = temp;
+                }
+            } else {
+                do end++; while (end < hi && c.compare(a[end], a[end - 1]) >= 0);
+            }
+            return end;
+        }
+
+        @Override
+        void insertionSort(int lo, int sorted, int hi) {
+            for (int i = Math.max(sorted, lo + 1); i < hi; i++) {
+                T key = a[i];
+                // Insert after any equal keys
+                int left = lo, right = i;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (c.compare(key, a[mid]) < 0) right = mid;
+                    else left = mid + 1;
+                }
+                System.arraycopy(a, left, a, left + 1, i - left);
+                a[left] = key;
+            }
+        }
+
+        @Override
+        void merge(int lo, int mid, int hi) {
+            // Keys of the left run not greater than a[mid], and keys of the
+            // right run not smaller than a[mid - 1], are already in place
+            lo = gallop(a[mid], a, lo, mid, true, false);
+            if (lo == mid) return;
+            hi = gallop(a[mid - 1], a, mid, hi, false, true);
+
+            // Now a[mid - 1] goes last and a[mid] first, so a run of one
+            // key only moves past the other run
+            if (mid - lo == 1) {
+                T key = a[lo];
+                System.arraycopy(a, mid, a, lo, hi - mid);
+                a[hi - 1] = key;
+            } else if (hi - mid == 1) {
+                T key = a[mid];
+                System.arraycopy(a, lo, a, lo + 1, mid - lo);
+                a[lo] = key;
+            } else if (mid - lo <= hi - mid) {
+                mergeLeft(lo, mid, hi);
+            } else {
+                mergeRight(lo, mid, hi);
+            }
+        }
+
+        private void mergeLeft(int lo, int mid, int hi) {
+            T[] a = this.a;
+            int n1 = mid - lo;
+            T[] t = tmp(n1);
+            System.arraycopy(a, lo, t, 0, n1);
+
+            // Next key of each run: t[i] and a[j]; next slot: a[k]
+            int i = 0, j = mid, k = lo;
+            int minGallop = this.minGallop;
+            while (i < n1 && j < hi) {
+                int leftWins = 0, rightWins = 0;
+                while (leftWins + rightWins < minGallop) {
+                    if (c.compare(a[j], t[i]) < 0) {
+                        a[k++] = a[j++];
+                        rightWins++;
+                        leftWins = 0;
+                        if (j == hi) break;
+                    } else {
+                        a[k++] = t[i++];
+                        leftWins++;
+                        rightWins = 0;
+                        if (i == n1) break;
+                    }
+                }
+                if (i == n1 || j == hi) break;
+
+                // One run keeps winning: move whole blocks while they are long
+                do {
+                    int end = gallop(a[j], t, i, n1, true, false);
+                    leftWins = end - i;
+                    System.arraycopy(t, i, a, k, leftWins);
+                    k += leftWins;
+                    i = end;
+                    if (i == n1) break;
+
+                    end = gallop(t[i], a, j, hi, false, false);
+                    rightWins = end - j;
+                    System.arraycopy(a, j, a, k, rightWins);
+                    k += rightWins;
+                    j = end;
+                    if (j == hi) break;
+
+                    if (minGallop > 1) minGallop--;
+                } while (leftWins >= MIN_GALLOP || rightWins >= MIN_GALLOP);
+                minGallop += 2;
+            }
+            this.minGallop = minGallop;
+
+            // The rest of the right run is already in place
+            System.arraycopy(t, i, a, k, n1 - i);
+        }
+
+        private void mergeRight(int lo, int mid, int hi) {
+            T[] a = this.a;
+            int n2 = hi - mid;
+            T[] t = tmp(n2);
+            System.arraycopy(a, mid, t, 0, n2);
+
+            // Last key of each run: a[i] and t[j]; last free slot: a[k]
+            int i = mid - 1, j = n2 - 1, k = hi - 1;
+            int minGallop = this.minGallop;
+            while (i >= lo && j >= 0) {
+                int leftWins = 0, rightWins = 0;
+                while (leftWins + rightWins < minGallop) {
+                    if (c.compare(t[j], a[i]) < 0) {
+                        a[k--] = a[i--];
+                        leftWins++;
+                        rightWins = 0;
+                        if (i < lo) break;
+                    } else {
+                        a[k--] = t[j--];
+                        rightWins++;
+                        leftWins = 0;
+                        if (j < 0) break;
+                    }
+                }
+                if (i < lo || j < 0) break;
+
+                do {
+                    int start = gallop(t[j], a, lo, i + 1, true, true);
+                    leftWins = i + 1 - start;
+                    k -= leftWins;
+                    System.arraycopy(a, start, a, k + 1, leftWins);
+                    i = start - 1;
+                    if (i < lo) break;
+
+                    start = gallop(a[i], t, 0, j + 1, false, true);
+                    rightWins = j + 1 - start;
+                    k -= rightWins;
+                    System.arraycopy(t, start, a, k + 1, rightWins);
+                    j = start - 1;
+                    if (j < 0) break;
+
+                    if (minGallop > 1) minGallop--;
+                } while (leftWins >= MIN_GALLOP || rightWins >= MIN_GALLOP);
+                minGallop += 2;
+            }
+            this.minGallop = minGallop;
+
+            // The rest of the left run is already in place
+            System.arraycopy(t, 0, a, k - j, j + 1);
+        }
+
+        private int gallop(T key, T[] arr, int lo, int hi, boolean equalFirst, boolean fromRight) {
+            // The answer is in [left, right]
+            int left = lo, right = hi;
+            int n = hi - lo;
+            for (int step = 1; step <= n; step = step > n >> 1 ? n + 1 : step << 1) {
+                int probe = fromRight ? hi - step : lo + step - 1;
+                boolean before = equalFirst ? c.compare(key, arr[probe]) >= 0 : c.compare(arr[probe], key) < 0;
+                if (fromRight) {
+                    if (before) {
+                        left = probe + 1;
+                        break;
+                    }
+                    right = probe;
+                } else {
+                    if (!before) {
+                        right = probe;
+                        break;
+                    }
+                    left = probe + 1;
+                }
+            }
+
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                boolean before = equalFirst ? c.compare(key, arr[mid]) >= 0 : c.compare(arr[mid], key) < 0;
+                if (before) left = mid + 1;
+                else right = mid;
+            }
+            return left;
+        }
+
+        private T[] tmp(int n) {
+            if (tmp.length < n)
+                tmp = Arrays.copyOf(a, Math.max(n, Math.min(2 * tmp.length, a.length >>> 1)));
+            return tmp;
+        }
+    }
+
+    @Override
+    public void test() {
+        int[] arr = { 12, 11, 13, 5, 6 };
+        sort(arr);
+        ArrayHelper.print(arr);
+    }
+
+}
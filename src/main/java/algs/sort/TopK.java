@@ -0,0 +1,99 @@
+package algs.sort;
+
+import algs.shared.util.ArrayHelper;
+import algs.shared.util.Testable;
+
+/**
+ * Average: O(n), Worst: O(n log k) for n offered values, O(k) memory
+ *
+ * Keeps the k largest values of a stream in a bounded binary min-heap.
+ * The root is the smallest value kept so far, so once the heap is full a
+ * new value costs one comparison unless it beats the root, and then
+ * replaces it with a single sift-down. On random input only about
+ * k ln(n / k) of the n values get past the root.
+ */
+public class TopK implements Testable {
+
+    private final int[] heap;
+    private int size = 0;
+
+    public TopK(int k) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1: " + k);
+        this.heap = new int[k];
+    }
+
+    public void offer(int value) {
+        if (size < heap.length) {
+            siftUp(size++, value);
+        } else if (value > heap[0]) {
+            siftDown(value);
+        }
+    }
+
+    public void offerAll(int[] values) {
+        for (int value : values) offer(value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Smallest of the values kept: anything not larger than this
+     * is rejected once k values have been seen
+     */
+    public int min() {
+        if (size == 0) throw new IllegalStateException("no values offered");
+        return heap[0];
+    }
+
+    /**
+     * The values kept, largest first
+     */
+    public int[] toSortedArray() {
+        int[] result = new int[size];
+        System.arraycopy(heap, 0, result, 0, size);
+
+        // A min-heap sorted in place ends up in descending order
+        for (int end = size - 1; end > 0; end--) {
+            int value = result[end];
+            result[end] = result[0];
+            siftDown(result, end, value);
+        }
+        return result;
+    }
+
+    private void siftUp(int hole, int value) {
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 1;
+            if (heap[parent] <= value) break;
+            heap[hole] = heap[parent];
+            hole = parent;
+        }
+        heap[hole] = value;
+    }
+
+    // Replaces the root with value
+    private void siftDown(int value) {
+        siftDown(heap, size, value);
+    }
+
+    private static void siftDown(int[] heap, int n, int value) {
+        int hole = 0, child;
+        while ((child = 2 * hole + 1) < n) {
+            if (child + 1 < n && heap[child + 1] < heap[child]) child++;
+            if (value <= heap[child]) break;
+            heap[hole] = heap[child];
+            hole = child;
+        }
+        heap[hole] = value;
+    }
+
+    @Override
+    public void test() {
+        TopK top = new TopK(3);
+        top.offerAll(new int[] { 12, 11, 13, 5, 6 });
+        ArrayHelper.print(top.toSortedArray());
+    }
+
+}
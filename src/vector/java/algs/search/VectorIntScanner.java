@@ -0,0 +1,42 @@
+package algs.search;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scans with jdk.incubator.vector: each step compares a whole vector of
+ * keys (8 lanes with AVX2, 16 with AVX-512) against x and works on the
+ * resulting mask. The tail shorter than one vector is scanned scalar.
+ *
+ * Lives in the vector source set, which is compiled with
+ * --add-modules jdk.incubator.vector; LinearSearch only loads it when
+ * the module is present at run time.
+ */
+class VectorIntScanner implements IntScanner {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int indexOf(int[] arr, int x) {
+        int i = 0, bound = SPECIES.loopBound(arr.length);
+        for (; i < bound; i += SPECIES.length()) {
+            VectorMask<Integer> match = IntVector.fromArray(SPECIES, arr, i).eq(x);
+            if (match.anyTrue()) return i + match.firstTrue();
+        }
+        for (; i < arr.length; i++)
+            if (arr[i] == x) return i;
+        return -1;
+    }
+
+    @Override
+    public int count(int[] arr, int x) {
+        int i = 0, bound = SPECIES.loopBound(arr.length), count = 0;
+        for (; i < bound; i += SPECIES.length())
+            count += IntVector.fromArray(SPECIES, arr, i).eq(x).trueCount();
+        for (; i < arr.length; i++)
+            count += arr[i] == x ? 1 : 0;
+        return count;
+    }
+
+}